@@ -2,8 +2,10 @@ package com.zetoinc.edf_file_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class EdfFileServiceApplication {
 
 	public static void main(String[] args) {
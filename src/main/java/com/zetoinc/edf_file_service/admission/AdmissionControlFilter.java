@@ -0,0 +1,146 @@
+package com.zetoinc.edf_file_service.admission;
+
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.security.ApiKey;
+import com.zetoinc.edf_file_service.security.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Admission control for the API, applied before any EDF file is downloaded or received.
+ * <p>
+ * When the service as a whole is processing {@code app.admission.max-concurrent-requests} requests,
+ * further requests are shed with {@code 503 Service Unavailable}. Otherwise the quota of the API key
+ * is checked: a request that exceeds its concurrency cap, request rate or byte budget is rejected with
+ * {@code 429 Too Many Requests}. Both responses carry a {@code Retry-After} header.
+ * </p>
+ * <p>
+ * Requests without a known key are passed on unchanged, so that the controller can answer them
+ * with its usual authentication errors.
+ * </p>
+ */
+@Component
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final String API_PATH_PREFIX = "/api/";
+    private static final String KEY_PARAMETER = "key";
+
+    private final AuthService authService;
+    private final EdfMetrics metrics;
+    private final Semaphore globalConcurrency;
+    private final LongSupplier nanoClock;
+    private final Map<String, TenantLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an instance of {@code AdmissionControlFilter}.
+     *
+     * @param authService           The service resolving API keys and their quotas.
+     * @param metrics               The metrics recorder for rejected requests.
+     * @param maxConcurrentRequests The maximum number of API requests processed at the same time, {@code 0} for unlimited.
+     */
+    @Autowired
+    public AdmissionControlFilter(AuthService authService, EdfMetrics metrics,
+                                  @Value("${app.admission.max-concurrent-requests:0}") int maxConcurrentRequests) {
+        this(authService, metrics, maxConcurrentRequests, System::nanoTime);
+    }
+
+    AdmissionControlFilter(AuthService authService, EdfMetrics metrics, int maxConcurrentRequests, LongSupplier nanoClock) {
+        this.authService = authService;
+        this.metrics = metrics;
+        this.globalConcurrency = maxConcurrentRequests > 0 ? new Semaphore(maxConcurrentRequests) : null;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PATH_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // Read the key from the query string only, so that request bodies are not parsed before admission
+        Optional<ApiKey> apiKey = authService.resolveKey(queryParameter(request.getQueryString(), KEY_PARAMETER));
+        String client = apiKey.map(ApiKey::name).orElse(null);
+
+        if (globalConcurrency != null && !globalConcurrency.tryAcquire()) {
+            reject(response, client, new TenantLimiter.Rejection(TenantLimiter.Rejection.Reason.OVERLOAD,
+                    TimeUnit.SECONDS.toNanos(1)));
+            return;
+        }
+        try {
+            if (apiKey.isEmpty()) {
+                filterChain.doFilter(request, response);
+                return;
+            }
+
+            TenantLimiter limiter = limiters.computeIfAbsent(client, name -> new TenantLimiter(apiKey.get().quota(), nanoClock));
+            TenantLimiter.Rejection rejection = limiter.tryAcquire(Math.max(0, request.getContentLengthLong()));
+            if (rejection != null) {
+                reject(response, client, rejection);
+                return;
+            }
+
+            AtomicLong transferredBytes = new AtomicLong();
+            request.setAttribute(RequestByteCounter.ATTRIBUTE, transferredBytes);
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                limiter.release(transferredBytes.get());
+            }
+        } finally {
+            if (globalConcurrency != null) {
+                globalConcurrency.release();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response, String client, TenantLimiter.Rejection rejection) throws IOException {
+        boolean overload = rejection.reason() == TenantLimiter.Rejection.Reason.OVERLOAD;
+        logger.warn("Request of client {} rejected by admission control: {}", client, rejection.reason().tagValue);
+        metrics.recordRejection(client, rejection.reason().tagValue);
+
+        response.setStatus(overload ? HttpStatus.SERVICE_UNAVAILABLE.value() : HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(rejection.retryAfterSeconds()));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(overload ? "Service is overloaded." : "Too many requests.");
+    }
+
+    private static String queryParameter(String queryString, String name) {
+        if (queryString == null) {
+            return null;
+        }
+        for (String pair : queryString.split("&")) {
+            int separator = pair.indexOf('=');
+            String pairName = separator >= 0 ? pair.substring(0, separator) : pair;
+            if (name.equals(URLDecoder.decode(pairName, StandardCharsets.UTF_8))) {
+                return separator >= 0 ? URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8) : "";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.zetoinc.edf_file_service.admission;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the bytes fetched or received while handling the current request, so that
+ * {@link AdmissionControlFilter} can charge them to the byte budget of the client.
+ */
+public final class RequestByteCounter {
+
+    static final String ATTRIBUTE = RequestByteCounter.class.getName();
+
+    private RequestByteCounter() {
+    }
+
+    /**
+     * Adds bytes to the counter of the current request. Does nothing outside of an admitted request.
+     *
+     * @param bytes The number of bytes transferred.
+     */
+    public static void add(long bytes) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof AtomicLong counter) {
+            counter.addAndGet(bytes);
+        }
+    }
+}
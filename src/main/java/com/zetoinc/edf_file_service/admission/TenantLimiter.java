@@ -0,0 +1,99 @@
+package com.zetoinc.edf_file_service.admission;
+
+import com.zetoinc.edf_file_service.security.ApiKeyProperties;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Enforces the quota of a single API key: concurrent requests, request rate and byte budget.
+ */
+class TenantLimiter {
+
+    private final Semaphore concurrency;
+    private final TokenBucket requests;
+    private final TokenBucket bytes;
+
+    /**
+     * Constructs a limiter for the given quota; limits that are {@code 0} are not enforced.
+     *
+     * @param quota     The quota of the API key.
+     * @param nanoClock The clock, in nanoseconds.
+     */
+    TenantLimiter(ApiKeyProperties.Quota quota, LongSupplier nanoClock) {
+        this.concurrency = quota.getMaxConcurrentRequests() > 0 ? new Semaphore(quota.getMaxConcurrentRequests()) : null;
+        this.requests = quota.getRequestsPerSecond() > 0
+                ? new TokenBucket(Math.max(1, quota.getBurst()), quota.getRequestsPerSecond(), nanoClock)
+                : null;
+        this.bytes = quota.getBytesPerMinute() > 0
+                ? new TokenBucket(quota.getBytesPerMinute(), quota.getBytesPerMinute() / 60.0, nanoClock)
+                : null;
+    }
+
+    /**
+     * Admits a request if it fits the quota.
+     *
+     * @param expectedBytes The number of bytes the request is known to transfer, e.g. its content length, or {@code 0}.
+     * @return {@code null} if the request was admitted and must later be {@link #release(long) released},
+     * otherwise the rejection.
+     */
+    Rejection tryAcquire(long expectedBytes) {
+        if (bytes != null) {
+            long wait = bytes.nanosUntilAvailable(Math.max(1, expectedBytes));
+            if (wait > 0) {
+                return new Rejection(Rejection.Reason.BYTE_BUDGET, wait);
+            }
+        }
+        if (concurrency != null && !concurrency.tryAcquire()) {
+            return new Rejection(Rejection.Reason.CONCURRENCY, TimeUnit.SECONDS.toNanos(1));
+        }
+        if (requests != null && !requests.tryConsume(1)) {
+            if (concurrency != null) {
+                concurrency.release();
+            }
+            return new Rejection(Rejection.Reason.RATE, requests.nanosUntilAvailable(1));
+        }
+        return null;
+    }
+
+    /**
+     * Releases an admitted request and charges the bytes it transferred to the byte budget.
+     *
+     * @param transferredBytes The number of bytes the request fetched or received.
+     */
+    void release(long transferredBytes) {
+        if (concurrency != null) {
+            concurrency.release();
+        }
+        if (bytes != null && transferredBytes > 0) {
+            bytes.consume(transferredBytes);
+        }
+    }
+
+    /**
+     * Why a request was not admitted and when it is worth retrying.
+     *
+     * @param reason     The limit that was exceeded.
+     * @param retryNanos The time after which a retry may succeed.
+     */
+    record Rejection(Reason reason, long retryNanos) {
+
+        enum Reason {
+            CONCURRENCY("concurrency"),
+            RATE("rate"),
+            BYTE_BUDGET("byte_budget"),
+            OVERLOAD("overload");
+
+            final String tagValue;
+
+            Reason(String tagValue) {
+                this.tagValue = tagValue;
+            }
+        }
+
+        long retryAfterSeconds() {
+            return Math.max(1, (long) Math.ceil(retryNanos / 1e9));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zetoinc.edf_file_service.admission;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that refills continuously at a fixed rate up to its capacity.
+ * <p>
+ * Tokens can either be taken only if available ({@link #tryConsume(double)}), or charged unconditionally
+ * ({@link #consume(double)}), which may leave the bucket in debt until it has refilled. The latter is used
+ * for costs that are only known after a request has run, such as the number of bytes it fetched.
+ * </p>
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * Constructs a full token bucket.
+     *
+     * @param capacity        The maximum number of tokens.
+     * @param tokensPerSecond The refill rate.
+     * @param nanoClock       The clock, in nanoseconds.
+     */
+    TokenBucket(double capacity, double tokensPerSecond, LongSupplier nanoClock) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefill = nanoClock.getAsLong();
+    }
+
+    /**
+     * Takes the given number of tokens if they are available.
+     *
+     * @param amount The number of tokens to take.
+     * @return {@code true} if the tokens were taken, {@code false} otherwise.
+     */
+    synchronized boolean tryConsume(double amount) {
+        refill();
+        if (tokens < amount) {
+            return false;
+        }
+        tokens -= amount;
+        return true;
+    }
+
+    /**
+     * Takes the given number of tokens, even if that leaves the bucket in debt.
+     *
+     * @param amount The number of tokens to take.
+     */
+    synchronized void consume(double amount) {
+        refill();
+        tokens -= amount;
+    }
+
+    /**
+     * Returns the number of tokens currently available, negative if the bucket is in debt.
+     *
+     * @return The available tokens.
+     */
+    synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    /**
+     * Returns how long it takes until the given number of tokens is available.
+     *
+     * @param amount The number of tokens, capped at the capacity.
+     * @return The wait time in nanoseconds, {@code 0} if the tokens are available now.
+     */
+    synchronized long nanosUntilAvailable(double amount) {
+        refill();
+        double missing = Math.min(amount, capacity) - tokens;
+        return missing <= 0 ? 0 : (long) Math.ceil(missing / tokensPerNano);
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
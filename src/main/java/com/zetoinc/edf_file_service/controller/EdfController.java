@@ -1,10 +1,17 @@
 package com.zetoinc.edf_file_service.controller;
 
 import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.InvalidEdfFileException;
 import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.exception.OriginUnavailableException;
+import com.zetoinc.edf_file_service.exception.SignalNotAvailableException;
+import com.zetoinc.edf_file_service.ingest.IngestionJobService;
 import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.model.IngestionJob;
 import com.zetoinc.edf_file_service.security.AuthService;
 import com.zetoinc.edf_file_service.service.EdfFileService;
+import com.zetoinc.edf_file_service.signal.SignalData;
+import com.zetoinc.edf_file_service.signal.SignalService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,9 +19,21 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * REST controller for handling EDF file metadata extraction.
@@ -32,16 +51,29 @@ public class EdfController {
 
     private final AuthService authService;
     private final EdfFileService edfFileService;
+    private final IngestionJobService ingestionJobService;
+    private final SignalService signalService;
+
+    @Value("${app.http.cache.max-age-seconds:3600}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${app.http.cache.public:false}")
+    private boolean cachePublic;
 
     /**
      * Constructs an instance of {@code EdfController}.
      *
      * @param authService   The authentication service used for request validation.
      * @param edfFileService The service responsible for processing EDF files.
+     * @param ingestionJobService The service managing asynchronous ingestion jobs.
+     * @param signalService The service reading the signal data of stored recordings.
      */
-    public EdfController(AuthService authService, EdfFileService edfFileService) {
+    public EdfController(AuthService authService, EdfFileService edfFileService, IngestionJobService ingestionJobService,
+                         SignalService signalService) {
         this.authService = authService;
         this.edfFileService = edfFileService;
+        this.ingestionJobService = ingestionJobService;
+        this.signalService = signalService;
     }
 
     /**
@@ -50,9 +82,15 @@ public class EdfController {
      * This endpoint requires authentication via a pre-shared key (PSK).
      * If the key is invalid or the file URL is incorrect, appropriate error responses are returned.
      * </p>
+     * <p>
+     * Descriptors carry an entity tag derived from the metadata and a {@code Cache-Control} header, as recordings
+     * do not change once written. If the {@code If-None-Match} header matches the metadata already stored for
+     * the URL, {@code 304 Not Modified} is returned without fetching the file again.
+     * </p>
      *
-     * @param key     The pre-shared key for authentication.
-     * @param fileUrl The URL of the EDF file.
+     * @param key         The pre-shared key for authentication.
+     * @param fileUrl     The URL of the EDF file.
+     * @param ifNoneMatch The entity tags of the descriptors the client has cached, if any.
      * @return A response entity containing the metadata of the EDF file or an appropriate error message.
      */
     @GetMapping("/descriptor")
@@ -60,28 +98,28 @@ public class EdfController {
             description = "Fetches metadata of an EDF file by providing a valid authentication key and file URL.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved EDF metadata"),
+            @ApiResponse(responseCode = "304", description = "Not modified: The cached EDF metadata is still valid"),
             @ApiResponse(responseCode = "400", description = "Bad request: Missing or invalid parameters"),
             @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
-            @ApiResponse(responseCode = "500", description = "Internal Server Error: Unexpected error occurred")
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Unexpected error occurred"),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable: The origin of the EDF file is down")
     })
     public ResponseEntity<?> getEdfDescriptor(
             @Parameter(description = "Pre-Shared Key for authentication", required = true)
             @RequestParam String key,
 
             @Parameter(description = "URL pointing to the EDF file", required = true)
-            @RequestParam String fileUrl) {
+            @RequestParam String fileUrl,
+
+            @Parameter(description = "Entity tags of cached descriptors")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 
         logger.info("Received request to process EDF file from URL: {}", fileUrl);
 
         // Validate authentication key
-        if (!StringUtils.hasText(key)) {
-            logger.warn("Authentication failed: Missing key");
-            return ResponseEntity.badRequest().body("Authentication key is missing.");
-        }
-
-        if (!authService.isValidKey(key)) {
-            logger.warn("Authentication failed: Invalid key");
-            return ResponseEntity.status(403).body("Invalid authentication key.");
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
         }
 
         // Validate file URL
@@ -91,12 +129,26 @@ public class EdfController {
         }
 
         try {
+            // Answer revalidation from the stored metadata, without fetching the file
+            if (StringUtils.hasText(ifNoneMatch)) {
+                Optional<EdfMetadata> stored = edfFileService.findStoredMetadata(fileUrl);
+                if (stored.isPresent() && EntityTags.matches(ifNoneMatch, EntityTags.of(stored.get()))) {
+                    logger.info("EDF descriptor not modified for URL: {}", fileUrl);
+                    return notModified(EntityTags.of(stored.get()));
+                }
+            }
+
             EdfMetadata metadata = edfFileService.processEdfFile(fileUrl);
             logger.info("Successfully processed EDF file from URL: {}", fileUrl);
-            return ResponseEntity.ok(metadata);
+            return conditionalResponse(EntityTags.of(metadata), ifNoneMatch, metadata);
         } catch (InvalidFileURLException e) {
             logger.error("Invalid file URL provided: {}", fileUrl, e);
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (OriginUnavailableException e) {
+            logger.warn("EDF file origin is unavailable: {}", fileUrl);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body("EDF file origin is unavailable.");
         } catch (FileProcessingException e) {
             logger.error("Error processing EDF file: {}", fileUrl, e);
             return ResponseEntity.internalServerError().body("Error processing EDF file.");
@@ -105,4 +157,387 @@ public class EdfController {
             return ResponseEntity.internalServerError().body("An unexpected error occurred.");
         }
     }
+
+    /**
+     * Retrieves stored EDF metadata by its ID.
+     * <p>
+     * Frequently read metadata is served from an in-process cache without a database round trip.
+     * Responses carry an entity tag and {@code Cache-Control} like the descriptor endpoint.
+     * </p>
+     *
+     * @param key         The pre-shared key for authentication.
+     * @param id          The ID of the metadata.
+     * @param ifNoneMatch The entity tags of the metadata the client has cached, if any.
+     * @return A response entity containing the metadata or an appropriate error message.
+     */
+    @GetMapping("/metadata/{id}")
+    @Operation(summary = "Get stored EDF metadata",
+            description = "Returns the stored metadata with the given ID.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved EDF metadata"),
+            @ApiResponse(responseCode = "304", description = "Not modified: The cached EDF metadata is still valid"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
+            @ApiResponse(responseCode = "404", description = "Not found: No metadata with this ID")
+    })
+    public ResponseEntity<?> getEdfMetadata(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @Parameter(description = "ID of the stored metadata", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Entity tags of cached metadata")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        Optional<EdfMetadata> metadata = edfFileService.findMetadata(id);
+        if (metadata.isEmpty()) {
+            logger.warn("EDF metadata not found: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("EDF metadata not found.");
+        }
+        return conditionalResponse(EntityTags.of(metadata.get()), ifNoneMatch, metadata.get());
+    }
+
+    /**
+     * Retrieves the stored metadata of all recordings of a patient.
+     *
+     * @param key         The pre-shared key for authentication.
+     * @param patientId   The patient ID.
+     * @param ifNoneMatch The entity tags of the lists the client has cached, if any.
+     * @return A response entity containing the list of metadata, possibly empty, or an appropriate error message.
+     */
+    @GetMapping("/metadata")
+    @Operation(summary = "Get stored EDF metadata of a patient",
+            description = "Returns the stored metadata of all recordings of the given patient.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved EDF metadata"),
+            @ApiResponse(responseCode = "304", description = "Not modified: The cached EDF metadata is still valid"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key or patient ID"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key")
+    })
+    public ResponseEntity<?> getEdfMetadataByPatient(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @Parameter(description = "Patient ID", required = true)
+            @RequestParam String patientId,
+
+            @Parameter(description = "Entity tags of cached metadata lists")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        if (!StringUtils.hasText(patientId)) {
+            logger.warn("Invalid request: Missing patient ID");
+            return ResponseEntity.badRequest().body("Patient ID is required.");
+        }
+
+        List<EdfMetadata> metadata = edfFileService.findMetadataByPatient(patientId);
+        return conditionalResponse(EntityTags.of(metadata), ifNoneMatch, metadata);
+    }
+
+    /**
+     * Retrieves the physical samples of one channel of a stored recording over a time range.
+     * <p>
+     * Only recordings whose EDF file is stored by the service, i.e. uploads and files from watched directories,
+     * have signal data. Reads are served from the columnar copy of the recording if it has been transcoded.
+     * </p>
+     *
+     * @param key     The pre-shared key for authentication.
+     * @param id      The ID of the recording's metadata.
+     * @param channel The index of the channel.
+     * @param start   The start of the range in seconds from the start of the recording.
+     * @param end     The end of the range in seconds, exclusive; the end of the recording if omitted.
+     * @param ifNoneMatch The entity tags of the signal data the client has cached, if any.
+     * @return A response entity containing the samples or an appropriate error message.
+     */
+    @GetMapping("/metadata/{id}/signal")
+    @Operation(summary = "Get EDF signal data",
+            description = "Returns the physical samples of one channel of a stored EDF file over a time range.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully read the signal data"),
+            @ApiResponse(responseCode = "304", description = "Not modified: The cached signal data is still valid"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key, invalid channel or time range"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
+            @ApiResponse(responseCode = "404", description = "Not found: No metadata with this ID or the EDF file is not stored"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: The stored EDF file cannot be read")
+    })
+    public ResponseEntity<?> getEdfSignal(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @Parameter(description = "ID of the stored metadata", required = true)
+            @PathVariable Long id,
+
+            @Parameter(description = "Index of the channel", required = true)
+            @RequestParam int channel,
+
+            @Parameter(description = "Start of the time range in seconds")
+            @RequestParam(defaultValue = "0") double start,
+
+            @Parameter(description = "End of the time range in seconds, exclusive")
+            @RequestParam(required = false) Double end,
+
+            @Parameter(description = "Entity tags of cached signal data")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        Optional<EdfMetadata> metadata = edfFileService.findMetadata(id);
+        if (metadata.isEmpty()) {
+            logger.warn("EDF metadata not found: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("EDF metadata not found.");
+        }
+        String etag = EntityTags.of(metadata.get(), channel, start, end);
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            // The client has these samples already, so the file is not read again
+            return notModified(etag);
+        }
+
+        try {
+            Optional<SignalData> signal = signalService.readSignal(id, channel, start, end);
+            if (signal.isEmpty()) {
+                logger.warn("EDF metadata not found: {}", id);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("EDF metadata not found.");
+            }
+            return conditionalResponse(etag, ifNoneMatch, signal.get());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid signal request for EDF metadata {}: {}", id, e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SignalNotAvailableException e) {
+            logger.warn("EDF signal data not available: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (FileProcessingException e) {
+            logger.error("Error reading EDF signal data: {}", id, e);
+            return ResponseEntity.internalServerError().body("Error processing EDF file.");
+        }
+    }
+
+    /**
+     * Submits EDF files for asynchronous ingestion.
+     * <p>
+     * The files are queued as jobs in the database and ingested by whichever instance of the service
+     * claims them first. The state of each job can be followed with {@code GET /api/edf/jobs/{id}}.
+     * </p>
+     *
+     * @param key      The pre-shared key for authentication.
+     * @param fileUrls The URLs of the EDF files.
+     * @return A response entity containing the created jobs or an appropriate error message.
+     */
+    @PostMapping(value = "/jobs", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Submit EDF files for ingestion",
+            description = "Queues a JSON array of EDF file URLs for asynchronous ingestion and returns the created jobs.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted: The files are queued for ingestion"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key or file URLs"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key")
+    })
+    public ResponseEntity<?> submitIngestionJobs(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @RequestBody List<String> fileUrls) {
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        if (fileUrls == null || fileUrls.isEmpty() || !fileUrls.stream().allMatch(StringUtils::hasText)) {
+            logger.warn("Invalid request: Missing file URLs");
+            return ResponseEntity.badRequest().body("File URLs are required.");
+        }
+
+        List<IngestionJob> jobs = ingestionJobService.submit(fileUrls);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(jobs);
+    }
+
+    /**
+     * Retrieves the state of an ingestion job.
+     *
+     * @param key The pre-shared key for authentication.
+     * @param id  The ID of the job.
+     * @return A response entity containing the job or an appropriate error message.
+     */
+    @GetMapping("/jobs/{id}")
+    @Operation(summary = "Get ingestion job",
+            description = "Returns the state of the ingestion job with the given ID.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the ingestion job"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
+            @ApiResponse(responseCode = "404", description = "Not found: No ingestion job with this ID")
+    })
+    public ResponseEntity<?> getIngestionJob(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @Parameter(description = "ID of the ingestion job", required = true)
+            @PathVariable Long id) {
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        Optional<IngestionJob> job = ingestionJobService.findJob(id);
+        if (job.isEmpty()) {
+            logger.warn("Ingestion job not found: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Ingestion job not found.");
+        }
+        return ResponseEntity.ok(job.get());
+    }
+
+    /**
+     * Receives an EDF file pushed as the raw request body.
+     * <p>
+     * The metadata is extracted from the header while the body is still arriving, and the rest of the body
+     * is streamed straight into storage, so the upload is never buffered in memory as a whole.
+     * </p>
+     *
+     * @param key  The pre-shared key for authentication.
+     * @param body The content of the EDF file.
+     * @return A response entity containing the metadata of the EDF file or an appropriate error message.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @Operation(summary = "Upload EDF file",
+            description = "Stores an EDF file sent as an octet-stream body and returns its metadata.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Successfully stored the EDF file"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key or incomplete EDF file"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Unexpected error occurred")
+    })
+    public ResponseEntity<?> uploadEdfFile(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            InputStream body) {
+
+        logger.info("Received EDF upload");
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        return storeUpload(body);
+    }
+
+    /**
+     * Receives an EDF file pushed as a multipart form upload.
+     * <p>
+     * The servlet container spools the part to disk, from where it is streamed the same way as a raw body upload.
+     * </p>
+     *
+     * @param key  The pre-shared key for authentication.
+     * @param file The uploaded EDF file.
+     * @return A response entity containing the metadata of the EDF file or an appropriate error message.
+     */
+    @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload EDF file as multipart form",
+            description = "Stores an EDF file sent in the 'file' part of a multipart form and returns its metadata.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Successfully stored the EDF file"),
+            @ApiResponse(responseCode = "400", description = "Bad request: Missing key or incomplete EDF file"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Invalid authentication key"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error: Unexpected error occurred")
+    })
+    public ResponseEntity<?> uploadEdfMultipart(
+            @Parameter(description = "Pre-Shared Key for authentication", required = true)
+            @RequestParam String key,
+
+            @Parameter(description = "The EDF file", required = true)
+            @RequestPart("file") MultipartFile file) {
+
+        logger.info("Received multipart EDF upload: {}", file.getOriginalFilename());
+
+        ResponseEntity<String> authFailure = authenticate(key);
+        if (authFailure != null) {
+            return authFailure;
+        }
+
+        try {
+            return storeUpload(file.getInputStream());
+        } catch (IOException e) {
+            logger.error("Unable to read multipart EDF upload", e);
+            return ResponseEntity.internalServerError().body("Error processing EDF file.");
+        }
+    }
+
+    private ResponseEntity<?> storeUpload(InputStream body) {
+        try {
+            EdfMetadata metadata = edfFileService.processEdfUpload(body);
+            logger.info("Successfully stored EDF upload with ID: {}", metadata.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(metadata);
+        } catch (InvalidEdfFileException e) {
+            logger.error("Invalid EDF upload", e);
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (FileProcessingException e) {
+            logger.error("Error storing EDF upload", e);
+            return ResponseEntity.internalServerError().body("Error processing EDF file.");
+        } catch (Exception e) {
+            logger.error("Unexpected error occurred while storing EDF upload", e);
+            return ResponseEntity.internalServerError().body("An unexpected error occurred.");
+        }
+    }
+
+    /**
+     * Returns the body with its entity tag and caching policy, or {@code 304 Not Modified} if the client has it already.
+     */
+    private ResponseEntity<?> conditionalResponse(String etag, String ifNoneMatch, Object body) {
+        if (EntityTags.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .body(body);
+    }
+
+    private ResponseEntity<?> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl())
+                .build();
+    }
+
+    /**
+     * Returns the caching policy of immutable EDF resources. Responses are private by default,
+     * as they contain patient data that shared caches must not keep unless explicitly allowed.
+     */
+    private CacheControl cacheControl() {
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(cacheMaxAgeSeconds));
+        return cachePublic ? cacheControl.cachePublic() : cacheControl.cachePrivate();
+    }
+
+    /**
+     * Validates the authentication key.
+     *
+     * @param key The pre-shared key provided by the client.
+     * @return An error response if the key is missing or invalid, {@code null} otherwise.
+     */
+    private ResponseEntity<String> authenticate(String key) {
+        if (!StringUtils.hasText(key)) {
+            logger.warn("Authentication failed: Missing key");
+            return ResponseEntity.badRequest().body("Authentication key is missing.");
+        }
+
+        if (!authService.isValidKey(key)) {
+            logger.warn("Authentication failed: Invalid key");
+            return ResponseEntity.status(403).body("Invalid authentication key.");
+        }
+        return null;
+    }
 }
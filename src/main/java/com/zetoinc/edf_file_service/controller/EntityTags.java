@@ -0,0 +1,128 @@
+package com.zetoinc.edf_file_service.controller;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Computes and compares HTTP entity tags for EDF resources.
+ * <p>
+ * Tags are weak, because they are derived from the content of a recording rather than the exact response bytes:
+ * the database ID, which differs every time a file is processed, is not part of the tag. Two responses with the
+ * same tag therefore describe the same recording.
+ * </p>
+ */
+final class EntityTags {
+
+    private static final char SEPARATOR = '\u001f';
+    private static final int TAG_BYTES = 16;
+
+    private EntityTags() {
+    }
+
+    /**
+     * Returns the entity tag of an EDF descriptor.
+     *
+     * @param metadata The metadata of the EDF file.
+     * @return The weak entity tag, e.g. {@code W/"3q2+7w..."}.
+     */
+    static String of(EdfMetadata metadata) {
+        StringBuilder content = new StringBuilder()
+                .append(metadata.getTitle()).append(SEPARATOR)
+                .append(metadata.getPatientId()).append(SEPARATOR)
+                .append(metadata.getNumberOfChannels()).append(SEPARATOR)
+                .append(metadata.getDuration()).append(SEPARATOR)
+                .append(metadata.getNumberOfAnnotations()).append(SEPARATOR)
+                .append(metadata.getStartDate());
+        List<String> channelNames = metadata.getChannelNames();
+        if (channelNames != null) {
+            for (String channelName : channelNames) {
+                content.append(SEPARATOR).append(channelName);
+            }
+        }
+        return of(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the entity tag of a list of EDF descriptors. Unlike the tag of a single descriptor, it includes
+     * the IDs, so that it changes whenever a recording is added to or removed from the list.
+     *
+     * @param metadata The metadata of the EDF files.
+     * @return The weak entity tag.
+     */
+    static String of(List<EdfMetadata> metadata) {
+        StringBuilder content = new StringBuilder();
+        for (EdfMetadata entry : metadata) {
+            content.append(entry.getId()).append(SEPARATOR).append(of(entry)).append(SEPARATOR);
+        }
+        return of(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the entity tag of signal data read from a stored recording. Unlike the tag of a descriptor, it includes
+     * the ID and the recorded size and modification time of the file, which identify the samples, and the range read.
+     *
+     * @param metadata The metadata of the recording.
+     * @param channel  The index of the channel.
+     * @param start    The start of the range in seconds.
+     * @param end      The end of the range in seconds, or {@code null} for the end of the recording.
+     * @return The weak entity tag.
+     */
+    static String of(EdfMetadata metadata, int channel, double start, Double end) {
+        String content = new StringBuilder()
+                .append(metadata.getId()).append(SEPARATOR)
+                .append(metadata.getSourceSize()).append(SEPARATOR)
+                .append(metadata.getSourceLastModified()).append(SEPARATOR)
+                .append(of(metadata)).append(SEPARATOR)
+                .append(channel).append(SEPARATOR)
+                .append(start).append(SEPARATOR)
+                .append(end)
+                .toString();
+        return of(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the entity tag of arbitrary content.
+     *
+     * @param content The content identifying the resource, e.g. a response body or the parts it is derived from.
+     * @return The weak entity tag.
+     */
+    static String of(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "W/\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, TAG_BYTES)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against an entity tag, using the weak comparison required for it.
+     *
+     * @param ifNoneMatch The header value, a comma separated list of tags or {@code *}; may be {@code null}.
+     * @param etag        The current entity tag of the resource.
+     * @return {@code true} if the client already has the current representation.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        String opaqueTag = stripWeakPrefix(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeakPrefix(tag).equals(opaqueTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
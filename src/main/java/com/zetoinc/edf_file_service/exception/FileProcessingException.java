@@ -9,6 +9,15 @@ package com.zetoinc.edf_file_service.exception;
  */
 public class FileProcessingException extends RuntimeException {
 
+    /**
+     * Constructs a new {@code FileProcessingException} with the specified detail message.
+     *
+     * @param message The error message describing the reason for the exception.
+     */
+    public FileProcessingException(String message) {
+        super(message);
+    }
+
     /**
      * Constructs a new {@code FileProcessingException} with the specified detail message and cause.
      *
@@ -2,6 +2,7 @@ package com.zetoinc.edf_file_service.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -34,6 +35,38 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    /**
+     * Handles {@link InvalidEdfFileException} exceptions.
+     * <p>
+     * This exception occurs when the uploaded content is not a readable EDF file.
+     * </p>
+     *
+     * @param ex The exception instance containing details of the error.
+     * @return A {@link ResponseEntity} with a 400 Bad Request status and an error message.
+     */
+    @ExceptionHandler(InvalidEdfFileException.class)
+    public ResponseEntity<String> handleInvalidEdfFileException(InvalidEdfFileException ex) {
+        logger.warn("Handled InvalidEdfFileException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Handles {@link OriginUnavailableException} exceptions.
+     * <p>
+     * This exception occurs when the origin of an EDF file is considered down and is not contacted.
+     * </p>
+     *
+     * @param ex The exception instance containing details of the error.
+     * @return A {@link ResponseEntity} with a 503 Service Unavailable status, a Retry-After header and an error message.
+     */
+    @ExceptionHandler(OriginUnavailableException.class)
+    public ResponseEntity<String> handleOriginUnavailableException(OriginUnavailableException ex) {
+        logger.warn("Handled OriginUnavailableException: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
     /**
      * Handles {@link FileProcessingException} exceptions.
      * <p>
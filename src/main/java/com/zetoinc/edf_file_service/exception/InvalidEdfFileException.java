@@ -0,0 +1,21 @@
+package com.zetoinc.edf_file_service.exception;
+
+/**
+ * Exception thrown when the content provided by the client is not a readable EDF file.
+ * <p>
+ * This exception is triggered in cases such as an upload that ends before
+ * the EDF header is complete.
+ * </p>
+ */
+public class InvalidEdfFileException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code InvalidEdfFileException} with the specified detail message and cause.
+     *
+     * @param message The error message describing the reason for the exception.
+     * @param cause   The underlying cause of the exception.
+     */
+    public InvalidEdfFileException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.zetoinc.edf_file_service.exception;
+
+/**
+ * Exception thrown when an EDF file is not fetched because its origin is considered down.
+ * <p>
+ * This exception is triggered when the circuit breaker of the origin is open after repeated failures,
+ * so that requests fail fast instead of waiting for timeouts.
+ * </p>
+ */
+public class OriginUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructs a new {@code OriginUnavailableException} with the specified detail message.
+     *
+     * @param message           The error message describing the reason for the exception.
+     * @param retryAfterSeconds The number of seconds after which the origin will be tried again.
+     */
+    public OriginUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Returns the number of seconds after which the origin will be tried again.
+     *
+     * @return The retry delay in seconds, at least {@code 1}.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
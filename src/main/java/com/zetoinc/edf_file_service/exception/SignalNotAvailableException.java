@@ -0,0 +1,19 @@
+package com.zetoinc.edf_file_service.exception;
+
+/**
+ * Exception thrown when the signal data of a recording is requested but the EDF file is not stored locally.
+ * <p>
+ * This is the case for files that were only described from a remote URL, since only their header was fetched.
+ * </p>
+ */
+public class SignalNotAvailableException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code SignalNotAvailableException} with the specified detail message.
+     *
+     * @param message The error message describing the reason for the exception.
+     */
+    public SignalNotAvailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,96 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker of a single origin.
+ * <p>
+ * The circuit opens after a number of consecutive failures. While it is open, requests are rejected without
+ * contacting the origin. Once the open duration has passed, a single trial request is let through: if it
+ * succeeds the circuit closes again, otherwise it stays open for another period. A trial whose outcome is never
+ * reported does not hold the circuit half open for good: after another open duration, the next trial is let through.
+ * </p>
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+
+    /**
+     * Constructs a closed circuit breaker.
+     *
+     * @param failureThreshold The number of consecutive failures that opens the circuit.
+     * @param openNanos        How long the circuit stays open, in nanoseconds.
+     * @param nanoClock        The clock, in nanoseconds.
+     */
+    CircuitBreaker(int failureThreshold, long openNanos, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Asks for permission to send a request.
+     *
+     * @return {@code true} if the request may be sent and its outcome must be reported, {@code false} if the circuit is open.
+     */
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - openedAt >= openNanos) {
+                    state = State.HALF_OPEN;
+                    trialStartedAt = nanoClock.getAsLong();
+                    return true;
+                }
+                return false;
+            default:
+                // A trial request is already under way, unless it was lost without being reported
+                if (nanoClock.getAsLong() - trialStartedAt >= openNanos) {
+                    trialStartedAt = nanoClock.getAsLong();
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Reports that the origin answered.
+     */
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * Reports that the origin could not be reached or failed to answer.
+     */
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = nanoClock.getAsLong();
+        }
+    }
+
+    /**
+     * Returns the time until the circuit lets a trial request through.
+     *
+     * @return The remaining open time in nanoseconds, {@code 0} if the circuit is not open.
+     */
+    synchronized long nanosUntilRetry() {
+        return state == State.OPEN ? Math.max(0, openNanos - (nanoClock.getAsLong() - openedAt)) : 0;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+}
@@ -0,0 +1,133 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Configuration of how EDF files are fetched from remote origins.
+ * <p>
+ * The {@code app.fetch.defaults} apply to every origin. Individual hosts can override any of them under
+ * {@code app.fetch.origins[host]}, e.g. {@code app.fetch.origins[storage-1.example.com].read-timeout=30s};
+ * settings an override leaves out fall back to the defaults.
+ * </p>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.fetch")
+@Getter
+@Setter
+public class FetchProperties {
+
+    /**
+     * The fetch policy of origins without an override.
+     */
+    private Policy defaults = Policy.builtIn();
+
+    /**
+     * Policy overrides by host name.
+     */
+    private Map<String, Policy> origins = new HashMap<>();
+
+    /**
+     * The maximum number of hedged requests in flight across all origins; further slow requests are not hedged.
+     */
+    private int maxConcurrentHedges = 16;
+
+    /**
+     * Returns the effective policy of a host.
+     *
+     * @param host The host name of the origin.
+     * @return The override of the host merged with the defaults, or the defaults if there is none.
+     */
+    public Policy policyFor(String host) {
+        Policy override = host != null ? origins.get(host) : null;
+        return override != null ? override.withDefaults(defaults) : defaults.withDefaults(Policy.builtIn());
+    }
+
+    /**
+     * Timeouts, retries, hedging and circuit breaking of an origin.
+     */
+    @Getter
+    @Setter
+    public static class Policy {
+
+        /**
+         * The time allowed to establish a connection.
+         */
+        private Duration connectTimeout;
+
+        /**
+         * The time allowed to wait for data once connected.
+         */
+        private Duration readTimeout;
+
+        /**
+         * The number of attempts, including the first one, for failures that may be transient.
+         */
+        private Integer maxAttempts;
+
+        /**
+         * The backoff before the first retry; it doubles with every further retry. The actual wait is random
+         * between zero and this value, so that clients retrying at the same time spread out.
+         */
+        private Duration backoffBase;
+
+        /**
+         * The upper bound of the backoff.
+         */
+        private Duration backoffMax;
+
+        /**
+         * Whether a second request for the header is sent when the first is slower than usual.
+         */
+        private Boolean hedgingEnabled;
+
+        /**
+         * The minimum wait before a hedged request, even if the origin's 95th percentile latency is lower.
+         */
+        private Duration hedgeMinDelay;
+
+        /**
+         * The number of consecutive failures after which the circuit opens and requests fail fast.
+         */
+        private Integer failureThreshold;
+
+        /**
+         * How long the circuit stays open before a single trial request is let through.
+         */
+        private Duration openDuration;
+
+        static Policy builtIn() {
+            Policy policy = new Policy();
+            policy.connectTimeout = Duration.ofSeconds(2);
+            policy.readTimeout = Duration.ofSeconds(10);
+            policy.maxAttempts = 3;
+            policy.backoffBase = Duration.ofMillis(100);
+            policy.backoffMax = Duration.ofSeconds(2);
+            policy.hedgingEnabled = true;
+            policy.hedgeMinDelay = Duration.ofMillis(50);
+            policy.failureThreshold = 5;
+            policy.openDuration = Duration.ofSeconds(30);
+            return policy;
+        }
+
+        Policy withDefaults(Policy defaults) {
+            Policy policy = new Policy();
+            policy.connectTimeout = connectTimeout != null ? connectTimeout : defaults.connectTimeout;
+            policy.readTimeout = readTimeout != null ? readTimeout : defaults.readTimeout;
+            policy.maxAttempts = maxAttempts != null ? maxAttempts : defaults.maxAttempts;
+            policy.backoffBase = backoffBase != null ? backoffBase : defaults.backoffBase;
+            policy.backoffMax = backoffMax != null ? backoffMax : defaults.backoffMax;
+            policy.hedgingEnabled = hedgingEnabled != null ? hedgingEnabled : defaults.hedgingEnabled;
+            policy.hedgeMinDelay = hedgeMinDelay != null ? hedgeMinDelay : defaults.hedgeMinDelay;
+            policy.failureThreshold = failureThreshold != null ? failureThreshold : defaults.failureThreshold;
+            policy.openDuration = openDuration != null ? openDuration : defaults.openDuration;
+            return policy;
+        }
+    }
+}
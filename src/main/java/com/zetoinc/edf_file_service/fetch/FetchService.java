@@ -0,0 +1,24 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Service interface for fetching EDF files from remote origins.
+ * <p>
+ * Implementations are expected to bound every request in time and to protect the service from slow
+ * or failing origins.
+ * </p>
+ */
+public interface FetchService {
+
+    /**
+     * Fetches the header of an EDF file, i.e. the fixed header and the channel labels.
+     *
+     * @param url The URL of the EDF file.
+     * @return The header bytes and the number of bytes transferred.
+     * @throws IOException If the header cannot be fetched.
+     * @throws com.zetoinc.edf_file_service.exception.OriginUnavailableException If the origin is considered down.
+     */
+    RemoteHeader fetchHeader(URL url) throws IOException;
+}
@@ -0,0 +1,412 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import com.zetoinc.edf_file_service.exception.OriginUnavailableException;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.service.EdfHeaderParser;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementation of {@link FetchService} over {@link HttpURLConnection}.
+ * <p>
+ * Only the header of a file is requested, with a {@code Range} header covering the header of files with
+ * up to {@value #PREFETCH_CHANNELS} channels; files with more channels need a second range request. Every
+ * request is bounded by the connect and read timeouts of its origin. Failures that may be transient, i.e.
+ * I/O errors and {@code 408}, {@code 429} and {@code 5xx} responses, are retried after a randomized
+ * exponential backoff.
+ * </p>
+ * <p>
+ * Requests run on the calling thread. When a request has taken longer than the 95th percentile of the origin's
+ * recent latencies, a second, hedged request is sent from a bounded pool and whichever answers first is used;
+ * while every hedge thread is busy, slow requests are not hedged. Consecutive failures open the origin's
+ * circuit breaker, after which requests fail fast with {@link OriginUnavailableException}.
+ * </p>
+ * <p>
+ * {@code file:} URLs are read directly, without any of the above.
+ * </p>
+ */
+@Service
+public class FetchServiceImpl implements FetchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchServiceImpl.class);
+    private static final int PREFETCH_CHANNELS = 256;
+    private static final int PREFETCH_BYTES = EdfHeaderParser.headerLength(PREFETCH_CHANNELS);
+    private static final int LATENCY_SAMPLES = 256;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+    private static final double HEDGE_QUANTILE = 0.95;
+
+    private final FetchProperties properties;
+    private final EdfMetrics metrics;
+    private final LongSupplier nanoClock;
+    private final Map<String, Origin> origins = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService hedgeTimer = Executors.newSingleThreadScheduledExecutor(daemonThreads("edf-fetch-hedge-timer"));
+    private final ExecutorService hedgeExecutor;
+
+    /**
+     * Constructs an instance of {@code FetchServiceImpl}.
+     *
+     * @param properties The fetch policies of the origins.
+     * @param metrics    The metrics recorder for retries, hedged requests and rejected fetches.
+     */
+    @Autowired
+    public FetchServiceImpl(FetchProperties properties, EdfMetrics metrics) {
+        this(properties, metrics, System::nanoTime);
+    }
+
+    FetchServiceImpl(FetchProperties properties, EdfMetrics metrics, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.nanoClock = nanoClock;
+        this.hedgeExecutor = new ThreadPoolExecutor(0, Math.max(1, properties.getMaxConcurrentHedges()), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), daemonThreads("edf-fetch-hedge"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Fetches the header of an EDF file, i.e. the fixed header and the channel labels.
+     *
+     * @param url The URL of the EDF file.
+     * @return The header bytes and the number of bytes transferred.
+     * @throws IOException                If the header cannot be fetched, after all attempts.
+     * @throws OriginUnavailableException If the circuit breaker of the origin is open.
+     */
+    @Override
+    public RemoteHeader fetchHeader(URL url) throws IOException {
+        if (!(url.getProtocol().equals("http") || url.getProtocol().equals("https"))) {
+            try (InputStream in = url.openStream()) {
+                byte[] header = EdfHeaderParser.readHeader(in);
+                return new RemoteHeader(header, header.length);
+            }
+        }
+
+        Origin origin = origins.computeIfAbsent(url.getProtocol() + "://" + url.getAuthority(),
+                key -> new Origin(properties.policyFor(url.getHost()), nanoClock));
+        FetchProperties.Policy policy = origin.policy;
+        AtomicLong bytesFetched = new AtomicLong();
+
+        for (int attempt = 1; ; attempt++) {
+            if (!origin.circuitBreaker.tryAcquire()) {
+                metrics.recordShortCircuit();
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(origin.circuitBreaker.nanosUntilRetry()) + 1);
+                throw new OriginUnavailableException("EDF file origin is unavailable: " + url.getHost(), retryAfter);
+            }
+            try {
+                byte[] header = hedged(origin, connection -> fetchHeaderOnce(url, policy, bytesFetched, connection));
+                origin.circuitBreaker.onSuccess();
+                return new RemoteHeader(header, bytesFetched.get());
+            } catch (FetchStatusException e) {
+                if (!e.retryable) {
+                    // The origin answered, so it is up even though the file cannot be fetched
+                    origin.circuitBreaker.onSuccess();
+                    throw e;
+                }
+                origin.circuitBreaker.onFailure();
+                if (attempt >= policy.getMaxAttempts()) {
+                    throw e;
+                }
+                logger.warn("Attempt {} to fetch EDF header from {} failed: {}", attempt, url, e.getMessage());
+            } catch (EOFException e) {
+                origin.circuitBreaker.onSuccess();
+                throw e;
+            } catch (IOException e) {
+                origin.circuitBreaker.onFailure();
+                if (attempt >= policy.getMaxAttempts() || Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                logger.warn("Attempt {} to fetch EDF header from {} failed: {}", attempt, url, e.toString());
+            } catch (RuntimeException e) {
+                // Every acquired permission must be reported, otherwise a trial request would keep the circuit half open
+                origin.circuitBreaker.onFailure();
+                throw e;
+            }
+            metrics.recordRetry();
+            backoff(policy, attempt);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        hedgeTimer.shutdownNow();
+        hedgeExecutor.shutdownNow();
+    }
+
+    /**
+     * Runs a request on the calling thread and, if it takes longer than the origin's 95th percentile latency,
+     * a second one on a hedge thread. No second request is sent while all hedge threads are busy.
+     *
+     * @return The result of the request that succeeds first.
+     * @throws IOException If all requests fail; the failure of the first request is thrown.
+     */
+    private byte[] hedged(Origin origin, Request request) throws IOException {
+        ConnectionHolder primary = new ConnectionHolder();
+        long p95 = origin.latencies.percentile(HEDGE_QUANTILE, MIN_HEDGE_SAMPLES);
+        if (!origin.policy.getHedgingEnabled() || p95 < 0) {
+            return timed(origin, request, primary);
+        }
+
+        Hedge hedge = new Hedge();
+        long hedgeDelay = Math.max(p95, origin.policy.getHedgeMinDelay().toNanos());
+        ScheduledFuture<?> trigger;
+        try {
+            trigger = hedgeTimer.schedule(() -> startHedge(origin, request, primary, hedge), hedgeDelay, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            return timed(origin, request, primary);
+        }
+        try {
+            return timed(origin, request, primary);
+        } catch (IOException | RuntimeException e) {
+            // Either the request failed, or it was aborted because the hedged request answered first
+            byte[] result = hedge.await();
+            if (result == null) {
+                throw e;
+            }
+            metrics.recordHedge(true);
+            return result;
+        } finally {
+            trigger.cancel(false);
+            hedge.cancel();
+        }
+    }
+
+    private void startHedge(Origin origin, Request request, ConnectionHolder primary, Hedge hedge) {
+        if (!hedge.start()) {
+            return;
+        }
+        try {
+            hedgeExecutor.execute(() -> {
+                try {
+                    hedge.result.complete(timed(origin, request, hedge.connection));
+                    // Abort the request that lost the race
+                    primary.cancel();
+                } catch (IOException | RuntimeException e) {
+                    hedge.result.completeExceptionally(e);
+                }
+            });
+            metrics.recordHedge(false);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Not hedging slow EDF header fetch, all hedge threads are busy");
+            hedge.result.completeExceptionally(e);
+        }
+    }
+
+    private byte[] timed(Origin origin, Request request, ConnectionHolder connection) throws IOException {
+        long start = nanoClock.getAsLong();
+        byte[] result = request.run(connection);
+        origin.latencies.record(nanoClock.getAsLong() - start);
+        return result;
+    }
+
+    /**
+     * Fetches the header with a single request, or two if the file has more channels than the first range covers.
+     */
+    private byte[] fetchHeaderOnce(URL url, FetchProperties.Policy policy, AtomicLong bytesFetched,
+                                   ConnectionHolder holder) throws IOException {
+        HttpURLConnection connection = holder.open(url, policy, 0, PREFETCH_BYTES - 1);
+        int status = connection.getResponseCode();
+        checkStatus(url, status);
+
+        byte[] prefix;
+        try (InputStream in = connection.getInputStream()) {
+            prefix = in.readNBytes(PREFETCH_BYTES);
+            bytesFetched.addAndGet(prefix.length);
+            if (prefix.length < EdfHeaderParser.FIXED_HEADER_SIZE) {
+                throw new EOFException("EDF file ends before the end of its header: " + url);
+            }
+            int headerLength = EdfHeaderParser.headerLength(EdfHeaderParser.channelCount(prefix));
+            if (headerLength <= prefix.length) {
+                return Arrays.copyOf(prefix, headerLength);
+            }
+            if (status == HttpURLConnection.HTTP_OK || prefix.length < PREFETCH_BYTES) {
+                // The origin ignored the range and sends the whole file, or the file is shorter than its header
+                return concat(prefix, readRest(in, headerLength - prefix.length, bytesFetched, url));
+            }
+        }
+
+        int headerLength = EdfHeaderParser.headerLength(EdfHeaderParser.channelCount(prefix));
+        HttpURLConnection labels = holder.open(url, policy, prefix.length, headerLength - 1);
+        checkStatus(url, labels.getResponseCode());
+        try (InputStream in = labels.getInputStream()) {
+            return concat(prefix, readRest(in, headerLength - prefix.length, bytesFetched, url));
+        }
+    }
+
+    private static byte[] readRest(InputStream in, int length, AtomicLong bytesFetched, URL url) throws IOException {
+        byte[] rest = in.readNBytes(length);
+        bytesFetched.addAndGet(rest.length);
+        if (rest.length < length) {
+            throw new EOFException("EDF file ends before the end of its header: " + url);
+        }
+        return rest;
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] bytes = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, bytes, first.length, second.length);
+        return bytes;
+    }
+
+    private static void checkStatus(URL url, int status) throws FetchStatusException {
+        if (status == HttpURLConnection.HTTP_OK || status == HttpURLConnection.HTTP_PARTIAL) {
+            return;
+        }
+        boolean retryable = status == HttpURLConnection.HTTP_CLIENT_TIMEOUT || status == 429 || status >= 500;
+        throw new FetchStatusException("Unexpected HTTP status " + status + " from " + url, retryable);
+    }
+
+    private void backoff(FetchProperties.Policy policy, int attempt) throws InterruptedIOException {
+        long ceiling = Math.min(policy.getBackoffMax().toNanos(),
+                policy.getBackoffBase().toNanos() << Math.min(attempt - 1, 30));
+        long delay = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry EDF header fetch");
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * The state kept per origin.
+     */
+    private static final class Origin {
+        private final FetchProperties.Policy policy;
+        private final CircuitBreaker circuitBreaker;
+        private final LatencyTracker latencies = new LatencyTracker(LATENCY_SAMPLES);
+
+        private Origin(FetchProperties.Policy policy, LongSupplier nanoClock) {
+            this.policy = policy;
+            this.circuitBreaker = new CircuitBreaker(policy.getFailureThreshold(), policy.getOpenDuration().toNanos(), nanoClock);
+        }
+    }
+
+    /**
+     * A single request to an origin, which may open more than one connection.
+     */
+    @FunctionalInterface
+    private interface Request {
+        byte[] run(ConnectionHolder connection) throws IOException;
+    }
+
+    /**
+     * The hedged request of a fetch, which is started at most once and never after the fetch has finished.
+     */
+    private static final class Hedge {
+        private static final int PENDING = 0;
+        private static final int STARTED = 1;
+        private static final int FINISHED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private final ConnectionHolder connection = new ConnectionHolder();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+
+        boolean start() {
+            return state.compareAndSet(PENDING, STARTED);
+        }
+
+        /**
+         * Waits for the hedged request, if it was started.
+         *
+         * @return Its result, or {@code null} if it was not started or failed.
+         */
+        byte[] await() throws InterruptedIOException {
+            if (state.compareAndSet(PENDING, FINISHED)) {
+                return null;
+            }
+            try {
+                return result.get();
+            } catch (ExecutionException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching EDF header");
+            }
+        }
+
+        void cancel() {
+            state.set(FINISHED);
+            if (!result.isDone()) {
+                connection.cancel();
+            }
+        }
+    }
+
+    /**
+     * Holds the connection of a request, so that a request that lost the race can be aborted.
+     */
+    private static final class ConnectionHolder {
+        private HttpURLConnection connection;
+        private boolean cancelled;
+
+        synchronized HttpURLConnection open(URL url, FetchProperties.Policy policy, long first, long last) throws IOException {
+            if (cancelled) {
+                throw new InterruptedIOException("EDF header fetch was cancelled");
+            }
+            URLConnection urlConnection = url.openConnection();
+            if (!(urlConnection instanceof HttpURLConnection http)) {
+                throw new IOException("Not an HTTP URL: " + url);
+            }
+            http.setConnectTimeout((int) Math.min(Integer.MAX_VALUE, policy.getConnectTimeout().toMillis()));
+            http.setReadTimeout((int) Math.min(Integer.MAX_VALUE, policy.getReadTimeout().toMillis()));
+            http.setRequestProperty(HttpHeaders.RANGE, "bytes=" + first + "-" + last);
+            connection = http;
+            return http;
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * An unexpected HTTP status, which may or may not be worth retrying.
+     */
+    static final class FetchStatusException extends IOException {
+        private final boolean retryable;
+
+        FetchStatusException(String message, boolean retryable) {
+            super(message);
+            this.retryable = retryable;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the latencies of the most recent successful requests to an origin, to derive its 95th percentile.
+ */
+class LatencyTracker {
+
+    private final long[] samples;
+    private int next;
+    private int count;
+
+    /**
+     * Constructs a tracker.
+     *
+     * @param capacity The number of most recent samples kept.
+     */
+    LatencyTracker(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Returns the given percentile of the recorded latencies.
+     *
+     * @param quantile   The quantile, e.g. {@code 0.95}.
+     * @param minSamples The number of samples needed for a meaningful result.
+     * @return The latency in nanoseconds, or {@code -1} if fewer than {@code minSamples} have been recorded.
+     */
+    synchronized long percentile(double quantile, int minSamples) {
+        if (count < minSamples || count == 0) {
+            return -1;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return sorted[Math.min(count - 1, (int) Math.ceil(quantile * count) - 1)];
+    }
+}
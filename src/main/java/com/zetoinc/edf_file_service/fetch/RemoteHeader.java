@@ -0,0 +1,10 @@
+package com.zetoinc.edf_file_service.fetch;
+
+/**
+ * The header of a remote EDF file.
+ *
+ * @param header       The fixed header followed by the channel labels, see {@link com.zetoinc.edf_file_service.service.EdfHeaderParser}.
+ * @param bytesFetched The number of bytes transferred to get it, including retries and hedged requests.
+ */
+public record RemoteHeader(byte[] header, long bytesFetched) {
+}
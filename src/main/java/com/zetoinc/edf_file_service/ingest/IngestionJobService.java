@@ -0,0 +1,86 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.model.IngestionJob;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Service interface for the ingestion jobs shared by all instances of the service.
+ * <p>
+ * Jobs are stored in the database, so any number of instances can submit and work off jobs. An instance claims
+ * jobs by leasing them, renews the leases while it works on them and reports the outcome. Jobs whose lease
+ * expires, because the instance holding them crashed or lost its database connection, become claimable again.
+ * </p>
+ */
+public interface IngestionJobService {
+
+    /**
+     * Submits EDF files for asynchronous ingestion.
+     *
+     * @param sourceUris The URLs of the EDF files.
+     * @return The created jobs, in the order of the URLs.
+     */
+    List<IngestionJob> submit(List<String> sourceUris);
+
+    /**
+     * Looks up a job by its ID.
+     *
+     * @param id The ID of the job.
+     * @return The job, or an empty optional if there is none with this ID.
+     */
+    Optional<IngestionJob> findJob(Long id);
+
+    /**
+     * Claims jobs that are due, leasing them to the given instance.
+     * <p>
+     * Jobs claimed concurrently by other instances are skipped rather than waited for, so the returned jobs are
+     * not held by anyone else. Jobs whose lease expired too often are failed instead of being claimed again.
+     * </p>
+     *
+     * @param owner The ID of the claiming instance.
+     * @param limit The maximum number of jobs to claim.
+     * @return The claimed jobs, oldest first; empty if there is no work.
+     */
+    List<IngestionJob> claim(String owner, int limit);
+
+    /**
+     * Renews the leases of jobs the given instance is working on.
+     *
+     * @param owner The ID of the instance.
+     * @param ids   The IDs of the jobs.
+     * @return The number of leases renewed; lower than the number of IDs if leases were lost.
+     */
+    int renewLeases(String owner, Collection<Long> ids);
+
+    /**
+     * Records that a job was ingested.
+     *
+     * @param id         The ID of the job.
+     * @param owner      The ID of the instance holding the lease.
+     * @param metadataId The ID of the stored metadata.
+     * @return {@code true} if the outcome was recorded, {@code false} if the lease was lost in the meantime.
+     */
+    boolean complete(Long id, String owner, Long metadataId);
+
+    /**
+     * Records a failed attempt of a job, which is retried later unless it is out of attempts or not retryable.
+     *
+     * @param id        The ID of the job.
+     * @param owner     The ID of the instance holding the lease.
+     * @param error     The error message.
+     * @param retryable Whether another attempt may succeed.
+     * @return {@code true} if the outcome was recorded, {@code false} if the lease was lost in the meantime.
+     */
+    boolean fail(Long id, String owner, String error, boolean retryable);
+
+    /**
+     * Hands a claimed job back, so that it is claimed again right away without the attempt being counted.
+     *
+     * @param id    The ID of the job.
+     * @param owner The ID of the instance holding the lease.
+     * @return {@code true} if the job was released, {@code false} if the lease was lost in the meantime.
+     */
+    boolean release(Long id, String owner);
+}
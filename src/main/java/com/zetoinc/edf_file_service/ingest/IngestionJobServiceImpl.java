@@ -0,0 +1,206 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.model.IngestionJob;
+import com.zetoinc.edf_file_service.repository.IngestionJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Implementation of {@link IngestionJobService} on the shared {@code ingestion_job} table.
+ * <p>
+ * Claiming runs in its own transaction: the claimable rows are selected with {@code FOR UPDATE SKIP LOCKED},
+ * leased to the caller and committed, so the row locks are only held for the duration of the claim and never
+ * while a file is being ingested. Failed attempts are retried after an exponentially growing delay.
+ * </p>
+ */
+@Service
+public class IngestionJobServiceImpl implements IngestionJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobServiceImpl.class);
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final IngestionJobRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final EdfMetrics metrics;
+    private final Duration leaseDuration;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Clock clock;
+
+    /**
+     * Constructs an instance of {@code IngestionJobServiceImpl}.
+     *
+     * @param repository         The repository of ingestion jobs.
+     * @param transactionManager The transaction manager claims run in.
+     * @param metrics            The metrics the job outcomes are recorded in.
+     * @param leaseDuration      How long a claimed job stays leased without being renewed.
+     * @param maxAttempts        The number of times a job is attempted before it is failed.
+     * @param retryBackoff       The delay before the first retry; doubled for every further retry.
+     */
+    @Autowired
+    public IngestionJobServiceImpl(IngestionJobRepository repository,
+                                   PlatformTransactionManager transactionManager,
+                                   EdfMetrics metrics,
+                                   @Value("${app.jobs.lease-duration:30s}") Duration leaseDuration,
+                                   @Value("${app.jobs.max-attempts:3}") int maxAttempts,
+                                   @Value("${app.jobs.retry-backoff:30s}") Duration retryBackoff) {
+        this(repository, transactionManager, metrics, leaseDuration, maxAttempts, retryBackoff, Clock.systemUTC());
+    }
+
+    IngestionJobServiceImpl(IngestionJobRepository repository, PlatformTransactionManager transactionManager,
+                            EdfMetrics metrics, Duration leaseDuration, int maxAttempts, Duration retryBackoff,
+                            Clock clock) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.metrics = metrics;
+        this.leaseDuration = leaseDuration;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<IngestionJob> submit(List<String> sourceUris) {
+        Instant now = clock.instant();
+        List<IngestionJob> jobs = new ArrayList<>(sourceUris.size());
+        for (String sourceUri : sourceUris) {
+            jobs.add(new IngestionJob(sourceUri.trim(), now));
+        }
+        List<IngestionJob> saved = repository.saveAll(jobs);
+        logger.info("Submitted {} ingestion jobs", saved.size());
+        return saved;
+    }
+
+    @Override
+    public Optional<IngestionJob> findJob(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public List<IngestionJob> claim(String owner, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        return transactionTemplate.execute(status -> {
+            Instant now = clock.instant();
+            List<IngestionJob> claimed = new ArrayList<>();
+            for (IngestionJob job : repository.findClaimable(now, PageRequest.of(0, limit))) {
+                if (job.getStatus() == IngestionJob.Status.RUNNING) {
+                    logger.warn("Lease of ingestion job {} held by {} expired, reclaiming", job.getId(), job.getLeaseOwner());
+                    if (job.getAttempts() >= maxAttempts) {
+                        // The file keeps taking its worker down with it, so stop handing it out
+                        giveUp(job, "Lease expired after " + job.getAttempts() + " attempts", now);
+                        continue;
+                    }
+                }
+                job.setStatus(IngestionJob.Status.RUNNING);
+                job.setAttempts(job.getAttempts() + 1);
+                job.setLeaseOwner(owner);
+                job.setLeaseExpiresAt(now.plus(leaseDuration));
+                job.setUpdatedAt(now);
+                claimed.add(job);
+            }
+            return claimed;
+        });
+    }
+
+    @Override
+    public int renewLeases(String owner, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        return transactionTemplate.execute(status -> repository.renewLeases(ids, owner, now.plus(leaseDuration), now));
+    }
+
+    @Override
+    public boolean complete(Long id, String owner, Long metadataId) {
+        Instant now = clock.instant();
+        boolean updated = transactionTemplate.execute(status -> repository.markSucceeded(id, owner, metadataId, now)) > 0;
+        if (updated) {
+            metrics.recordJobOutcome("succeeded");
+        } else {
+            leaseLost(id, owner);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean fail(Long id, String owner, String error, boolean retryable) {
+        Instant now = clock.instant();
+        String message = truncate(error);
+        boolean updated = transactionTemplate.execute(status -> {
+            Optional<IngestionJob> job = repository.findById(id);
+            if (job.isEmpty()) {
+                return false;
+            }
+            int attempts = job.get().getAttempts();
+            if (retryable && attempts < maxAttempts) {
+                Instant retryAt = now.plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20)));
+                if (repository.markFailed(id, owner, IngestionJob.Status.PENDING, retryAt, message, now) == 0) {
+                    return false;
+                }
+                logger.warn("Ingestion job {} failed attempt {}, retrying at {}: {}", id, attempts, retryAt, message);
+                metrics.recordJobOutcome("retried");
+                return true;
+            }
+            if (repository.markFailed(id, owner, IngestionJob.Status.FAILED, job.get().getAvailableAt(), message, now) == 0) {
+                return false;
+            }
+            logger.error("Ingestion job {} failed after {} attempts: {}", id, attempts, message);
+            metrics.recordJobOutcome("failed");
+            return true;
+        });
+        if (!updated) {
+            leaseLost(id, owner);
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean release(Long id, String owner) {
+        Instant now = clock.instant();
+        boolean updated = transactionTemplate.execute(status -> repository.release(id, owner, now)) > 0;
+        if (updated) {
+            logger.info("Released ingestion job {} held by {}", id, owner);
+        }
+        return updated;
+    }
+
+    private void giveUp(IngestionJob job, String error, Instant now) {
+        job.setStatus(IngestionJob.Status.FAILED);
+        job.setLastError(error);
+        job.setLeaseOwner(null);
+        job.setLeaseExpiresAt(null);
+        job.setUpdatedAt(now);
+        logger.error("Ingestion job {} failed: {}", job.getId(), error);
+        metrics.recordJobOutcome("failed");
+    }
+
+    private void leaseLost(Long id, String owner) {
+        logger.warn("Lease of ingestion job {} was lost by {}, discarding its outcome", id, owner);
+        metrics.recordJobOutcome("lease_lost");
+    }
+
+    private static String truncate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
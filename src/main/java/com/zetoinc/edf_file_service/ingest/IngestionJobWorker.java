@@ -0,0 +1,229 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.exception.InvalidEdfFileException;
+import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.model.IngestionJob;
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Works off the ingestion jobs shared by all instances of the service.
+ * <p>
+ * Every instance runs a worker that polls for due jobs whenever it has idle worker threads, so the work spreads
+ * across instances in proportion to their capacity and throughput grows with the number of instances. The leases
+ * of jobs in progress are renewed at a third of the lease duration, so a lease only expires if the instance stops
+ * renewing it, e.g. because it crashed, after which another instance picks the job up.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.jobs.enabled", havingValue = "true")
+public class IngestionJobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionJobWorker.class);
+
+    private final IngestionJobService jobService;
+    private final EdfFileService edfFileService;
+
+    @Value("${app.jobs.instance-id:}")
+    private String instanceId;
+
+    @Value("${app.jobs.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${app.jobs.poll-interval:1s}")
+    private Duration pollInterval;
+
+    @Value("${app.jobs.lease-duration:30s}")
+    private Duration leaseDuration;
+
+    private final Set<Long> inFlightJobs = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService scheduler;
+    private ThreadPoolExecutor workers;
+    private Semaphore idleWorkers;
+
+    /**
+     * Constructs an instance of {@code IngestionJobWorker}.
+     *
+     * @param jobService     The service managing the shared ingestion jobs.
+     * @param edfFileService The service responsible for processing EDF files.
+     */
+    public IngestionJobWorker(IngestionJobService jobService, EdfFileService edfFileService) {
+        this.jobService = jobService;
+        this.edfFileService = edfFileService;
+    }
+
+    /**
+     * Starts polling for jobs and renewing leases.
+     */
+    @PostConstruct
+    public void start() {
+        if (!StringUtils.hasText(instanceId)) {
+            instanceId = hostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        // A permit is only returned once a job has finished, so the queue never holds more jobs than there are threads
+        idleWorkers = new Semaphore(workerThreads);
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), namedThreads("edf-job-worker"), new ThreadPoolExecutor.AbortPolicy());
+
+        long renewInterval = Math.max(leaseDuration.toMillis() / 3, 100L);
+        scheduler = Executors.newScheduledThreadPool(2, namedThreads("edf-job-scheduler"));
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::renewLeases, renewInterval, renewInterval, TimeUnit.MILLISECONDS);
+
+        logger.info("Ingestion job worker {} started with {} threads", instanceId, workerThreads);
+    }
+
+    /**
+     * Stops polling and waits briefly for jobs in progress. Jobs that do not finish in time keep their lease
+     * until it expires and are then picked up by another instance.
+     */
+    @PreDestroy
+    public void stop() {
+        logger.info("Stopping ingestion job worker {}", instanceId);
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the ID this instance holds leases under.
+     *
+     * @return The instance ID.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Claims as many jobs as there are idle worker threads and starts them.
+     * <p>
+     * Visible for testing; normally invoked by the scheduler.
+     * </p>
+     */
+    void poll() {
+        try {
+            int idle = idleWorkers.availablePermits();
+            if (idle <= 0 || workers.isShutdown()) {
+                return;
+            }
+            for (IngestionJob job : jobService.claim(instanceId, idle)) {
+                start(job);
+            }
+        } catch (Exception e) {
+            // Never let an exception escape, the scheduler would silently stop polling
+            logger.error("Failed to poll for ingestion jobs", e);
+        }
+    }
+
+    private void start(IngestionJob job) {
+        if (!idleWorkers.tryAcquire()) {
+            jobService.release(job.getId(), instanceId);
+            return;
+        }
+        inFlightJobs.add(job.getId());
+        try {
+            workers.execute(() -> {
+                try {
+                    run(job);
+                } finally {
+                    idleWorkers.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlightJobs.remove(job.getId());
+            idleWorkers.release();
+            logger.warn("Ingestion job worker {} is shutting down, releasing job {}", instanceId, job.getId());
+            jobService.release(job.getId(), instanceId);
+        }
+    }
+
+    /**
+     * Renews the leases of the jobs in progress.
+     * <p>
+     * Visible for testing; normally invoked by the scheduler.
+     * </p>
+     */
+    void renewLeases() {
+        List<Long> ids = List.copyOf(inFlightJobs);
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            int renewed = jobService.renewLeases(instanceId, ids);
+            if (renewed < ids.size()) {
+                logger.warn("Renewed {} of {} ingestion job leases, the others were taken over", renewed, ids.size());
+            }
+        } catch (Exception e) {
+            logger.error("Failed to renew ingestion job leases", e);
+        }
+    }
+
+    private void run(IngestionJob job) {
+        try {
+            logger.debug("Running ingestion job {} for {}", job.getId(), job.getSourceUri());
+            EdfMetadata metadata = edfFileService.processEdfFile(job.getSourceUri());
+            jobService.complete(job.getId(), instanceId, metadata.getId());
+        } catch (InvalidFileURLException | InvalidEdfFileException e) {
+            jobService.fail(job.getId(), instanceId, e.getMessage(), false);
+        } catch (Exception e) {
+            jobService.fail(job.getId(), instanceId, e.getMessage(), true);
+        } finally {
+            inFlightJobs.remove(job.getId());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "instance";
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,359 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Ingests EDF files dropped into the configured watch directories.
+ * <p>
+ * Directories are observed with a {@link WatchService}, so only files that actually changed are looked at,
+ * instead of periodically re-scanning every file; files already present are scanned once on start. Since the filesystem does not report when a writer closes
+ * a file, a file is considered complete once no event has been seen for the debounce interval and its size
+ * has stayed the same for a number of consecutive checks. Complete files are handed to a bounded worker pool;
+ * if the pool is saturated the file simply stays pending and is retried on the next check. A file whose size
+ * and modification time match those recorded when it was last ingested is skipped, so restarts and spurious
+ * modify events do not store its metadata again.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "app.watch.enabled", havingValue = "true")
+public class WatchFolderIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WatchFolderIngestionService.class);
+    private static final String EDF_EXTENSION = ".edf";
+
+    private final EdfFileService edfFileService;
+
+    @Value("${app.watch.directories}")
+    private String[] directories;
+
+    @Value("${app.watch.debounce-ms:2000}")
+    private long debounceMillis;
+
+    @Value("${app.watch.stable-checks:2}")
+    private int stableChecks;
+
+    @Value("${app.watch.worker-threads:4}")
+    private int workerThreads;
+
+    @Value("${app.watch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private final Map<Path, PendingFile> pendingFiles = new ConcurrentHashMap<>();
+    private final Set<Path> inFlightFiles = ConcurrentHashMap.newKeySet();
+    private final Map<WatchKey, Path> watchedDirectories = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private ScheduledExecutorService settleScheduler;
+    private ThreadPoolExecutor workers;
+
+    /**
+     * Constructs an instance of {@code WatchFolderIngestionService}.
+     *
+     * @param edfFileService The service responsible for processing EDF files.
+     */
+    public WatchFolderIngestionService(EdfFileService edfFileService) {
+        this.edfFileService = edfFileService;
+    }
+
+    /**
+     * Registers the configured directories and starts the watcher, the settle check and the worker pool.
+     *
+     * @throws IOException If a configured directory cannot be registered.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        watchService = FileSystems.getDefault().newWatchService();
+        List<Path> roots = new ArrayList<>();
+        for (String directory : directories) {
+            if (StringUtils.hasText(directory)) {
+                Path root = Paths.get(directory.trim());
+                registerRecursively(root);
+                roots.add(root);
+            }
+        }
+        // Files that arrived while the service was down produce no events, so look at them once
+        roots.forEach(this::scanTree);
+
+        workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads("edf-watch-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        long settleInterval = Math.max(debounceMillis / 2, 100L);
+        settleScheduler = Executors.newSingleThreadScheduledExecutor(namedThreads("edf-watch-settle"));
+        settleScheduler.scheduleWithFixedDelay(this::settlePendingFiles, settleInterval, settleInterval, TimeUnit.MILLISECONDS);
+
+        watcherThread = namedThreads("edf-watch-events").newThread(this::pollEvents);
+        watcherThread.start();
+
+        logger.info("Watch-folder ingestion started for {} directories", watchedDirectories.size());
+    }
+
+    /**
+     * Stops watching and waits briefly for files that are already being ingested.
+     */
+    @PreDestroy
+    public void stop() {
+        logger.info("Stopping watch-folder ingestion");
+        try {
+            if (watchService != null) {
+                watchService.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Error closing watch service", e);
+        }
+        if (settleScheduler != null) {
+            settleScheduler.shutdownNow();
+        }
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of files that have been seen but not yet handed to the worker pool.
+     *
+     * @return The number of pending files.
+     */
+    public int getPendingFileCount() {
+        return pendingFiles.size();
+    }
+
+    private void pollEvents() {
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            Path directory = watchedDirectories.get(key);
+            if (directory != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    handleEvent(directory, event);
+                }
+            }
+
+            if (!key.reset()) {
+                watchedDirectories.remove(key);
+                logger.info("Directory is no longer watched: {}", directory);
+            }
+        }
+    }
+
+    private void handleEvent(Path directory, WatchEvent<?> event) {
+        if (event.kind() == OVERFLOW) {
+            // Events were dropped, so fall back to looking at this one directory
+            logger.warn("Watch events overflowed for directory: {}", directory);
+            scanDirectory(directory);
+            return;
+        }
+
+        Path path = directory.resolve((Path) event.context());
+        if (event.kind() == ENTRY_DELETE) {
+            pendingFiles.remove(path);
+            return;
+        }
+
+        if (event.kind() == ENTRY_CREATE && Files.isDirectory(path)) {
+            try {
+                registerRecursively(path);
+                scanTree(path);
+            } catch (IOException e) {
+                logger.error("Failed to watch new directory: {}", path, e);
+            }
+            return;
+        }
+
+        if (isEdfFile(path)) {
+            markPending(path);
+        }
+    }
+
+    private void markPending(Path path) {
+        // Always a new state, so that a file taken for ingestion is never changed by a later event
+        pendingFiles.put(path, new PendingFile(System.nanoTime()));
+    }
+
+    /**
+     * Hands every pending file that is settled to the worker pool.
+     * <p>
+     * Visible for testing; normally invoked by the settle scheduler.
+     * </p>
+     */
+    void settlePendingFiles() {
+        long now = System.nanoTime();
+        long debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+
+        for (Map.Entry<Path, PendingFile> entry : pendingFiles.entrySet()) {
+            Path path = entry.getKey();
+            PendingFile pending = entry.getValue();
+
+            if (now - pending.lastEventNanos < debounceNanos || inFlightFiles.contains(path)) {
+                continue;
+            }
+
+            long size;
+            try {
+                size = Files.size(path);
+            } catch (NoSuchFileException e) {
+                pendingFiles.remove(path, pending);
+                continue;
+            } catch (IOException e) {
+                logger.warn("Unable to read size of pending EDF file: {}", path, e);
+                continue;
+            }
+
+            if (size != pending.lastSize) {
+                pending.lastSize = size;
+                pending.stableCount = 0;
+                continue;
+            }
+            if (++pending.stableCount < stableChecks) {
+                continue;
+            }
+
+            submit(path, pending);
+        }
+    }
+
+    private void submit(Path path, PendingFile pending) {
+        // Removed before the hand-over, so that an event arriving meanwhile leaves a new pending entry behind
+        if (!pendingFiles.remove(path, pending)) {
+            return;
+        }
+        inFlightFiles.add(path);
+        try {
+            workers.execute(() -> ingest(path));
+        } catch (RejectedExecutionException e) {
+            inFlightFiles.remove(path);
+            pendingFiles.putIfAbsent(path, pending);
+            logger.debug("Worker pool is saturated, keeping EDF file pending: {}", path);
+        }
+    }
+
+    private void ingest(Path path) {
+        try {
+            if (isAlreadyIngested(path)) {
+                logger.debug("EDF file is unchanged since it was ingested: {}", path);
+                return;
+            }
+            edfFileService.processLocalEdfFile(path);
+        } catch (Exception e) {
+            logger.error("Failed to ingest EDF file from watch folder: {}", path, e);
+        } finally {
+            inFlightFiles.remove(path);
+        }
+    }
+
+    private boolean isAlreadyIngested(Path path) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        return edfFileService.findStoredMetadata(path.toUri().toString())
+                .filter(metadata -> Long.valueOf(attributes.size()).equals(metadata.getSourceSize()))
+                .filter(metadata -> Long.valueOf(attributes.lastModifiedTime().toMillis()).equals(metadata.getSourceLastModified()))
+                .isPresent();
+    }
+
+    private void registerRecursively(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path directory : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                WatchKey key = directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                watchedDirectories.put(key, directory);
+                logger.debug("Watching directory: {}", directory);
+            }
+        }
+    }
+
+    private void scanDirectory(Path directory) {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isEdfFile).forEach(this::markPending);
+        } catch (IOException e) {
+            logger.error("Failed to scan directory: {}", directory, e);
+        }
+    }
+
+    private void scanTree(Path root) {
+        // Files may have landed in a new directory before it was registered
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(this::isEdfFile).forEach(this::markPending);
+        } catch (IOException e) {
+            logger.error("Failed to scan directory: {}", root, e);
+        }
+    }
+
+    private boolean isEdfFile(Path path) {
+        return path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(EDF_EXTENSION)
+                && Files.isRegularFile(path);
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Tracks a file that has changed but is not yet known to be complete.
+     */
+    private static final class PendingFile {
+        private final long lastEventNanos;
+        private volatile long lastSize = -1;
+        private volatile int stableCount;
+
+        private PendingFile(long lastEventNanos) {
+            this.lastEventNanos = lastEventNanos;
+        }
+    }
+}
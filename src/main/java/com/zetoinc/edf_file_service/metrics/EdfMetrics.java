@@ -0,0 +1,218 @@
+package com.zetoinc.edf_file_service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Micrometer instrumentation for the EDF processing pipeline.
+ * <p>
+ * Every stage of a request is recorded in the {@code edf.stage.duration} timer, tagged with the stage name,
+ * with a percentile histogram so that tail latencies can be aggregated across instances. The byte counters
+ * show how much data is fetched compared to the header bytes that metadata extraction actually needs.
+ * </p>
+ */
+@Component
+public class EdfMetrics {
+
+    /**
+     * Upper bound on distinct hosts tracked by the failure counter, since hosts come from client supplied URLs.
+     */
+    private static final int MAX_FAILURE_HOSTS = 200;
+
+    /**
+     * The stages of EDF processing that are timed individually.
+     */
+    public enum Stage {
+        DOWNLOAD("download"),
+        UPLOAD("upload"),
+        HEADER_PARSE("header_parse"),
+        PERSISTENCE("persistence"),
+        SERIALIZATION("serialization"),
+        SIGNAL_READ("signal_read"),
+        TRANSCODE("transcode");
+
+        private final String tagValue;
+
+        Stage(String tagValue) {
+            this.tagValue = tagValue;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Counter bytesFetched;
+    private final Counter bytesNeeded;
+
+    /**
+     * Constructs an instance of {@code EdfMetrics} and registers its meters.
+     *
+     * @param registry The registry the meters are published to.
+     */
+    public EdfMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        registry.config().meterFilter(
+                MeterFilter.maximumAllowableTags("edf.fetch.failures", "host", MAX_FAILURE_HOSTS, MeterFilter.deny()));
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("edf.stage.duration")
+                    .description("Time spent in each stage of EDF processing")
+                    .tag("stage", stage.tagValue)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        this.bytesFetched = Counter.builder("edf.fetch.bytes")
+                .description("Bytes fetched from remote EDF files")
+                .baseUnit("bytes")
+                .tag("kind", "fetched")
+                .register(registry);
+        this.bytesNeeded = Counter.builder("edf.fetch.bytes")
+                .description("Bytes fetched from remote EDF files")
+                .baseUnit("bytes")
+                .tag("kind", "needed")
+                .register(registry);
+    }
+
+    /**
+     * Returns the timer for the given stage.
+     *
+     * @param stage The processing stage.
+     * @return The timer recording the duration of the stage.
+     */
+    public Timer timer(Stage stage) {
+        return stageTimers.get(stage);
+    }
+
+    /**
+     * Records the number of bytes fetched from a remote EDF file.
+     *
+     * @param bytes The number of bytes transferred.
+     */
+    public void recordBytesFetched(long bytes) {
+        bytesFetched.increment(bytes);
+    }
+
+    /**
+     * Records the number of header bytes metadata extraction needed from a remote EDF file.
+     *
+     * @param bytes The number of bytes needed.
+     */
+    public void recordBytesNeeded(long bytes) {
+        bytesNeeded.increment(bytes);
+    }
+
+    /**
+     * Records a failed fetch from the given host.
+     *
+     * @param host The host of the EDF file URL, or {@code null} if it has none (e.g. {@code file:} URLs).
+     */
+    public void recordFetchFailure(String host) {
+        Counter.builder("edf.fetch.failures")
+                .description("Failed fetches of remote EDF files per host")
+                .tag("host", StringUtils.hasText(host) ? host : "local")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a retry of a failed fetch.
+     */
+    public void recordRetry() {
+        Counter.builder("edf.fetch.retries")
+                .description("Retries of failed fetches of remote EDF files")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a hedged fetch, i.e. a second request sent because the first was slower than usual.
+     *
+     * @param won {@code false} when the hedged request is sent, {@code true} when it answered before the first request.
+     */
+    public void recordHedge(boolean won) {
+        Counter.builder("edf.fetch.hedges")
+                .description("Hedged fetches of remote EDF file headers")
+                .tag("result", won ? "won" : "sent")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a fetch rejected without contacting the origin because its circuit breaker is open.
+     */
+    public void recordShortCircuit() {
+        Counter.builder("edf.fetch.short.circuited")
+                .description("Fetches rejected because the circuit breaker of the origin is open")
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records the sizes of an EDF file and of its columnar copy.
+     *
+     * @param sourceBytes     The size of the EDF file.
+     * @param transcodedBytes The size of the columnar file.
+     */
+    public void recordTranscode(long sourceBytes, long transcodedBytes) {
+        Counter.builder("edf.columnar.bytes")
+                .description("Bytes of EDF files transcoded into the columnar layout, before and after")
+                .baseUnit("bytes")
+                .tag("kind", "source")
+                .register(registry)
+                .increment(sourceBytes);
+        Counter.builder("edf.columnar.bytes")
+                .description("Bytes of EDF files transcoded into the columnar layout, before and after")
+                .baseUnit("bytes")
+                .tag("kind", "transcoded")
+                .register(registry)
+                .increment(transcodedBytes);
+    }
+
+    /**
+     * Records a read of signal data.
+     *
+     * @param layout  {@code columnar} if the read was served from the columnar copy, {@code edf} otherwise.
+     * @param samples The number of samples read.
+     */
+    public void recordSignalRead(String layout, long samples) {
+        Counter.builder("edf.signal.samples")
+                .description("Samples read from stored recordings per layout")
+                .tag("layout", layout)
+                .register(registry)
+                .increment(samples);
+    }
+
+    /**
+     * Records the outcome of an attempt of an ingestion job.
+     *
+     * @param outcome {@code succeeded}, {@code retried}, {@code failed} or {@code lease_lost} if the attempt
+     *                finished after its lease had been taken over.
+     */
+    public void recordJobOutcome(String outcome) {
+        Counter.builder("edf.jobs.attempts")
+                .description("Finished attempts of ingestion jobs")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Records a request rejected by admission control.
+     *
+     * @param client The name of the API key, or {@code null} for rejections before the client is known.
+     * @param reason The limit that was exceeded, e.g. {@code rate}.
+     */
+    public void recordRejection(String client, String reason) {
+        Counter.builder("edf.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tag("client", StringUtils.hasText(client) ? client : "unknown")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+}
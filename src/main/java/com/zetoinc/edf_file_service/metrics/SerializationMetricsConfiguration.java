@@ -0,0 +1,70 @@
+package com.zetoinc.edf_file_service.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Records how long writing JSON response bodies takes.
+ * <p>
+ * Response serialization happens after the controller has returned, so it cannot be timed there.
+ * Instead, the Jackson message converter registered by Spring MVC is replaced by one that records
+ * the {@link EdfMetrics.Stage#SERIALIZATION} stage around every write.
+ * </p>
+ */
+@Configuration
+public class SerializationMetricsConfiguration implements WebMvcConfigurer {
+
+    private final EdfMetrics metrics;
+
+    /**
+     * Constructs an instance of {@code SerializationMetricsConfiguration}.
+     *
+     * @param metrics The metrics recorder for the processing stages.
+     */
+    public SerializationMetricsConfiguration(EdfMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        Timer timer = metrics.timer(EdfMetrics.Stage.SERIALIZATION);
+        converters.replaceAll(converter -> converter instanceof MappingJackson2HttpMessageConverter jackson
+                && !(converter instanceof TimedJacksonHttpMessageConverter)
+                ? new TimedJacksonHttpMessageConverter(jackson.getObjectMapper(), timer)
+                : converter);
+    }
+
+    /**
+     * Jackson converter that times every response body it writes.
+     */
+    static class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+        private final Timer timer;
+
+        TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, Timer timer) {
+            super(objectMapper);
+            this.timer = timer;
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            Timer.Sample sample = Timer.start();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                sample.stop(timer);
+            }
+        }
+    }
+}
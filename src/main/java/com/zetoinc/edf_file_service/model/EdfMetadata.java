@@ -1,8 +1,10 @@
 package com.zetoinc.edf_file_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -66,6 +68,44 @@ public class EdfMetadata {
     @Column(name = "channel_name")
     private List<String> channelNames;
 
+    /**
+     * The location the EDF file was ingested from, e.g. its remote URL or a {@code file:} URI
+     * for files picked up from a watched directory. It is not part of the API, as it may be a path on the server.
+     */
+    @JsonIgnore
+    @Column(length = 2048)
+    private String sourceUri;
+
+    /**
+     * The size in bytes of a local file when it was ingested, or {@code null} for other sources.
+     */
+    @JsonIgnore
+    private Long sourceSize;
+
+    /**
+     * The last modification time of a local file when it was ingested, in milliseconds since the epoch,
+     * or {@code null} for other sources.
+     */
+    @JsonIgnore
+    private Long sourceLastModified;
+
+    /**
+     * Constructor to initialize an EDF metadata object without a source location.
+     *
+     * @param id                  The unique identifier of the metadata entry.
+     * @param title               The title or description of the EDF file.
+     * @param patientId           The patient ID associated with the EDF file.
+     * @param numberOfChannels    The number of channels recorded in the EDF file.
+     * @param duration            The total duration of the EDF recording in seconds.
+     * @param numberOfAnnotations The number of annotations in the EDF file.
+     * @param startDate           The start date and time of the EDF recording.
+     * @param channelNames        The list of channel names present in the EDF file.
+     */
+    public EdfMetadata(Long id, String title, String patientId, int numberOfChannels, double duration, int numberOfAnnotations, String startDate, List<String> channelNames) {
+        this(title, patientId, numberOfChannels, duration, numberOfAnnotations, startDate, channelNames);
+        this.id = id;
+    }
+
     /**
      * Constructor to initialize an EDF metadata object without an ID.
      * <p>
@@ -88,4 +128,18 @@ public class EdfMetadata {
         this.startDate = startDate;
         this.channelNames = channelNames;
     }
+
+    /**
+     * Creates a detached copy of this metadata, with its own list of channel names.
+     *
+     * @return A copy that can be changed without affecting this instance.
+     */
+    public EdfMetadata copy() {
+        EdfMetadata copy = new EdfMetadata(id, title, patientId, numberOfChannels, duration, numberOfAnnotations, startDate,
+                channelNames != null ? new ArrayList<>(channelNames) : null);
+        copy.setSourceUri(sourceUri);
+        copy.setSourceSize(sourceSize);
+        copy.setSourceLastModified(sourceLastModified);
+        return copy;
+    }
 }
@@ -0,0 +1,127 @@
+package com.zetoinc.edf_file_service.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Entity class representing an EDF file waiting to be ingested, or being ingested, by one of the service instances.
+ * <p>
+ * This class is mapped to the {@code ingestion_job} table, which is shared by all instances. A job is claimed by
+ * taking a lease on it: the claiming instance records itself as the lease owner and must renew the lease before
+ * it expires. Jobs whose lease expired, e.g. because the instance crashed, are claimed again by another instance.
+ * </p>
+ */
+@Entity
+@Table(name = "ingestion_job", indexes = {
+        @Index(name = "idx_ingestion_job_available", columnList = "status, available_at"),
+        @Index(name = "idx_ingestion_job_lease", columnList = "status, lease_expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class IngestionJob {
+
+    /**
+     * The states of an ingestion job.
+     */
+    public enum Status {
+        /**
+         * Waiting to be claimed, either new or due for a retry.
+         */
+        PENDING,
+        /**
+         * Leased by an instance that is ingesting the file.
+         */
+        RUNNING,
+        /**
+         * The file was ingested.
+         */
+        SUCCEEDED,
+        /**
+         * The file could not be ingested and will not be retried.
+         */
+        FAILED
+    }
+
+    /**
+     * Unique identifier for the job.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The URL of the EDF file to ingest.
+     */
+    @Column(length = 2048, nullable = false)
+    private String sourceUri;
+
+    /**
+     * The current state of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private Status status;
+
+    /**
+     * The number of times the job has been claimed.
+     */
+    private int attempts;
+
+    /**
+     * The instance holding the lease of a running job.
+     */
+    @Column(length = 128)
+    private String leaseOwner;
+
+    /**
+     * The time the lease of a running job expires unless it is renewed.
+     */
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    /**
+     * The earliest time a pending job may be claimed.
+     */
+    @Column(name = "available_at", nullable = false)
+    private Instant availableAt;
+
+    /**
+     * The ID of the stored metadata once the file has been ingested.
+     */
+    private Long metadataId;
+
+    /**
+     * The error of the last failed attempt.
+     */
+    @Column(length = 1024)
+    private String lastError;
+
+    /**
+     * The time the job was submitted.
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * The time the job last changed state or had its lease renewed.
+     */
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Constructor to initialize a pending job that can be claimed right away.
+     *
+     * @param sourceUri The URL of the EDF file to ingest.
+     * @param now       The current time.
+     */
+    public IngestionJob(String sourceUri, Instant now) {
+        this.sourceUri = sourceUri;
+        this.status = Status.PENDING;
+        this.availableAt = now;
+        this.createdAt = now;
+        this.updatedAt = now;
+    }
+}
@@ -1,9 +1,18 @@
 package com.zetoinc.edf_file_service.repository;
 
 import com.zetoinc.edf_file_service.model.EdfMetadata;
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for managing EDF metadata persistence.
  * <p>
@@ -20,10 +29,113 @@ import org.springframework.stereotype.Repository;
  * <p>
  * Additional custom query methods can be defined as needed.
  * </p>
+ * <p>
+ * Lookups by ID and by patient are served from the {@value #BY_ID_CACHE} and {@value #BY_PATIENT_CACHE}
+ * caches, which hold copies of the metadata together with its channel names (see {@link MetadataCacheConfiguration}).
+ * The write methods redeclared here keep both caches up to date; writes through other methods, such as JPQL
+ * updates, bypass them. The lists by patient are all evicted on a write, since the entity passed in does not tell
+ * which patient a stored row belonged to before. Entries also expire after {@code METADATA_CACHE_TTL}, which bounds how long another
+ * instance sharing the database serves metadata that has since changed.
+ * </p>
  *
  * @author Zsuzsa Makara
  * @see org.springframework.data.jpa.repository.JpaRepository
  */
 @Repository
+@CacheConfig(cacheResolver = MetadataCacheConfiguration.CACHE_RESOLVER)
 public interface EdfMetadataRepository extends JpaRepository<EdfMetadata, Long> {
+
+    /**
+     * Name of the cache of metadata by ID.
+     */
+    String BY_ID_CACHE = "edfMetadataById";
+
+    /**
+     * Name of the cache of metadata lists by patient ID.
+     */
+    String BY_PATIENT_CACHE = "edfMetadataByPatient";
+
+    /**
+     * Finds metadata by ID, including its channel names.
+     *
+     * @param id The ID of the metadata.
+     * @return The metadata, if it exists.
+     */
+    @Override
+    @EntityGraph(attributePaths = "channelNames")
+    @Cacheable(cacheNames = BY_ID_CACHE, key = "#p0", unless = "#result == null")
+    Optional<EdfMetadata> findById(Long id);
+
+    /**
+     * Finds all metadata of a patient, including the channel names, in the order it was stored.
+     *
+     * @param patientId The patient ID.
+     * @return The metadata of the patient's recordings, empty if there are none.
+     */
+    @EntityGraph(attributePaths = "channelNames")
+    @Cacheable(cacheNames = BY_PATIENT_CACHE, key = "#p0")
+    List<EdfMetadata> findByPatientIdOrderByIdAsc(String patientId);
+
+    /**
+     * Finds the most recently stored metadata of the EDF file at the given location, including its channel names.
+     *
+     * @param sourceUri The URL or URI the file was ingested from.
+     * @return The latest metadata of the file, if it has been processed before.
+     */
+    @EntityGraph(attributePaths = "channelNames")
+    Optional<EdfMetadata> findFirstBySourceUriOrderByIdDesc(String sourceUri);
+
+    @Override
+    @Caching(put = @CachePut(cacheNames = BY_ID_CACHE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = BY_PATIENT_CACHE, allEntries = true))
+    <S extends EdfMetadata> S save(S entity);
+
+    @Override
+    @Caching(put = @CachePut(cacheNames = BY_ID_CACHE, key = "#result.id"),
+            evict = @CacheEvict(cacheNames = BY_PATIENT_CACHE, allEntries = true))
+    <S extends EdfMetadata> S saveAndFlush(S entity);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    <S extends EdfMetadata> List<S> saveAll(Iterable<S> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    <S extends EdfMetadata> List<S> saveAllAndFlush(Iterable<S> entities);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BY_ID_CACHE, key = "#p0.id"),
+            @CacheEvict(cacheNames = BY_PATIENT_CACHE, allEntries = true)})
+    void delete(EdfMetadata entity);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = BY_ID_CACHE, key = "#p0"),
+            @CacheEvict(cacheNames = BY_PATIENT_CACHE, allEntries = true)})
+    void deleteById(Long id);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAll(Iterable<? extends EdfMetadata> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAllInBatch(Iterable<EdfMetadata> entities);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAllByIdInBatch(Iterable<Long> ids);
+
+    @Override
+    @CacheEvict(cacheNames = {BY_ID_CACHE, BY_PATIENT_CACHE}, allEntries = true)
+    void deleteAllInBatch();
 }
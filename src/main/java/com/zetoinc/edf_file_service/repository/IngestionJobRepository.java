@@ -0,0 +1,131 @@
+package com.zetoinc.edf_file_service.repository;
+
+import com.zetoinc.edf_file_service.model.IngestionJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for the shared table of {@link IngestionJob ingestion jobs}.
+ * <p>
+ * The updates of running jobs only apply while the given instance still holds the lease, so an instance whose
+ * lease expired and was taken over cannot overwrite the outcome of the new owner.
+ * </p>
+ *
+ * @see com.zetoinc.edf_file_service.ingest.IngestionJobService
+ */
+@Repository
+public interface IngestionJobRepository extends JpaRepository<IngestionJob, Long> {
+
+    /**
+     * Lock timeout hint value that makes Hibernate skip rows locked by other transactions.
+     */
+    String SKIP_LOCKED = "-2";
+
+    /**
+     * Finds jobs that can be claimed, i.e. pending jobs that are due and running jobs whose lease expired,
+     * oldest first, and locks them.
+     * <p>
+     * Must be called in a transaction, which holds the row locks until it ends. The query is issued as
+     * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so concurrent claims by other instances never wait for
+     * each other and never return the same job.
+     * </p>
+     *
+     * @param now  The current time.
+     * @param page The maximum number of jobs to return.
+     * @return The locked jobs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("select j from IngestionJob j"
+            + " where (j.status = PENDING and j.availableAt <= :now)"
+            + " or (j.status = RUNNING and j.leaseExpiresAt < :now)"
+            + " order by j.id")
+    List<IngestionJob> findClaimable(@Param("now") Instant now, Pageable page);
+
+    /**
+     * Renews the leases of running jobs held by the given instance.
+     *
+     * @param ids   The IDs of the jobs.
+     * @param owner The instance holding the leases.
+     * @param until The new expiry time of the leases.
+     * @param now   The current time.
+     * @return The number of leases renewed; lower than the number of IDs if leases were lost.
+     */
+    @Modifying
+    @Query("update IngestionJob j set j.leaseExpiresAt = :until, j.updatedAt = :now"
+            + " where j.id in :ids and j.leaseOwner = :owner"
+            + " and j.status = RUNNING")
+    int renewLeases(@Param("ids") Collection<Long> ids, @Param("owner") String owner,
+                    @Param("until") Instant until, @Param("now") Instant now);
+
+    /**
+     * Marks a running job as succeeded and releases its lease.
+     *
+     * @param id         The ID of the job.
+     * @param owner      The instance holding the lease.
+     * @param metadataId The ID of the stored metadata.
+     * @param now        The current time.
+     * @return {@code 1} if the job was updated, {@code 0} if the lease was lost.
+     */
+    @Modifying
+    @Query("update IngestionJob j set j.status = SUCCEEDED,"
+            + " j.metadataId = :metadataId, j.lastError = null, j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now"
+            + " where j.id = :id and j.leaseOwner = :owner"
+            + " and j.status = RUNNING")
+    int markSucceeded(@Param("id") Long id, @Param("owner") String owner,
+                      @Param("metadataId") Long metadataId, @Param("now") Instant now);
+
+    /**
+     * Records a failed attempt of a running job and releases its lease.
+     *
+     * @param id          The ID of the job.
+     * @param owner       The instance holding the lease.
+     * @param status      {@link IngestionJob.Status#PENDING} to retry the job, {@link IngestionJob.Status#FAILED} to give up.
+     * @param availableAt The earliest time the job may be retried.
+     * @param error       The error of the attempt.
+     * @param now         The current time.
+     * @return {@code 1} if the job was updated, {@code 0} if the lease was lost.
+     */
+    @Modifying
+    @Query("update IngestionJob j set j.status = :status, j.availableAt = :availableAt, j.lastError = :error,"
+            + " j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now"
+            + " where j.id = :id and j.leaseOwner = :owner"
+            + " and j.status = RUNNING")
+    int markFailed(@Param("id") Long id, @Param("owner") String owner, @Param("status") IngestionJob.Status status,
+                   @Param("availableAt") Instant availableAt, @Param("error") String error, @Param("now") Instant now);
+
+    /**
+     * Hands a running job back without counting the attempt, e.g. when it was claimed but could not be started.
+     *
+     * @param id    The ID of the job.
+     * @param owner The instance holding the lease.
+     * @param now   The current time.
+     * @return {@code 1} if the job was updated, {@code 0} if the lease was lost.
+     */
+    @Modifying
+    @Query("update IngestionJob j set j.status = PENDING, j.attempts = j.attempts - 1,"
+            + " j.leaseOwner = null, j.leaseExpiresAt = null, j.updatedAt = :now"
+            + " where j.id = :id and j.leaseOwner = :owner"
+            + " and j.status = RUNNING")
+    int release(@Param("id") Long id, @Param("owner") String owner, @Param("now") Instant now);
+
+    /**
+     * Counts the jobs in the given state.
+     *
+     * @param status The state.
+     * @return The number of jobs.
+     */
+    long countByStatus(IngestionJob.Status status);
+}
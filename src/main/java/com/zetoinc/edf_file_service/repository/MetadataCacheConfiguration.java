@@ -0,0 +1,139 @@
+package com.zetoinc.edf_file_service.repository;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the metadata caches of {@link EdfMetadataRepository} independent of the entities handed to callers.
+ * <p>
+ * Cached metadata are mutable JPA entities. The caches therefore store copies of what is put into them and
+ * hand out copies of what they hold, so that a caller changing an entity, e.g. one it has just saved,
+ * never changes what other callers are served.
+ * </p>
+ */
+@Configuration
+public class MetadataCacheConfiguration {
+
+    /**
+     * Name of the cache resolver used by {@link EdfMetadataRepository}.
+     */
+    public static final String CACHE_RESOLVER = "metadataCacheResolver";
+
+    @Bean(CACHE_RESOLVER)
+    public CacheResolver metadataCacheResolver(CacheManager cacheManager) {
+        return new CopyingCacheResolver(cacheManager);
+    }
+
+    /**
+     * Resolves the caches of the cache manager, wrapped in a {@link CopyingCache}.
+     */
+    static class CopyingCacheResolver extends SimpleCacheResolver {
+
+        private final Map<Cache, Cache> copyingCaches = new ConcurrentHashMap<>();
+
+        CopyingCacheResolver(CacheManager cacheManager) {
+            super(cacheManager);
+        }
+
+        @Override
+        public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+            return super.resolveCaches(context).stream()
+                    .map(cache -> copyingCaches.computeIfAbsent(cache, CopyingCache::new))
+                    .toList();
+        }
+    }
+
+    /**
+     * A cache that copies metadata on the way in and on the way out.
+     */
+    static class CopyingCache implements Cache {
+
+        private final Cache delegate;
+
+        CopyingCache(Cache delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            ValueWrapper wrapper = delegate.get(key);
+            return wrapper != null ? new SimpleValueWrapper(copy(wrapper.get())) : null;
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return type.cast(copy(delegate.get(key, type)));
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            @SuppressWarnings("unchecked")
+            T value = (T) copy(delegate.get(key, () -> copy(valueLoader.call())));
+            return value;
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            delegate.put(key, copy(value));
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            ValueWrapper existing = delegate.putIfAbsent(key, copy(value));
+            return existing != null ? new SimpleValueWrapper(copy(existing.get())) : null;
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            return delegate.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            return delegate.invalidate();
+        }
+
+        static Object copy(Object value) {
+            if (value instanceof EdfMetadata metadata) {
+                return metadata.copy();
+            }
+            if (value instanceof List<?> list) {
+                return list.stream().map(CopyingCache::copy).toList();
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.zetoinc.edf_file_service.security;
+
+/**
+ * An API key known to the service, identified by a name and carrying its quota.
+ * <p>
+ * The secret itself is not kept, only its SHA-256 digest.
+ * </p>
+ *
+ * @param name   The name identifying the client.
+ * @param digest The SHA-256 digest of the secret key.
+ * @param quota  The limits applied to requests made with this key.
+ */
+public record ApiKey(String name, byte[] digest, ApiKeyProperties.Quota quota) {
+}
@@ -0,0 +1,84 @@
+package com.zetoinc.edf_file_service.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration of the API keys accepted by the service and their quotas.
+ * <p>
+ * Keys are configured under {@code app.auth.keys[n]}. The legacy {@code app.secret.key} is always accepted
+ * as well, under the name {@code default} and with the {@code app.auth.default-quota}.
+ * </p>
+ */
+@Component
+@ConfigurationProperties(prefix = "app.auth")
+@Getter
+@Setter
+public class ApiKeyProperties {
+
+    /**
+     * The configured API keys.
+     */
+    private List<Key> keys = new ArrayList<>();
+
+    /**
+     * The quota of the legacy {@code app.secret.key} and of keys that do not define their own.
+     */
+    private Quota defaultQuota = new Quota();
+
+    /**
+     * A single API key.
+     */
+    @Getter
+    @Setter
+    public static class Key {
+
+        /**
+         * A name identifying the client in logs and metrics.
+         */
+        private String name;
+
+        /**
+         * The secret key value.
+         */
+        private String key;
+
+        /**
+         * The quota of this key, or {@code null} to use the default quota.
+         */
+        private Quota quota;
+    }
+
+    /**
+     * Limits applied to a single API key. A value of {@code 0} means unlimited.
+     */
+    @Getter
+    @Setter
+    public static class Quota {
+
+        /**
+         * The maximum number of requests processed at the same time.
+         */
+        private int maxConcurrentRequests;
+
+        /**
+         * The sustained number of requests per second.
+         */
+        private double requestsPerSecond;
+
+        /**
+         * The number of requests that may exceed the sustained rate in a burst.
+         */
+        private int burst;
+
+        /**
+         * The number of bytes that may be fetched or uploaded per minute.
+         */
+        private long bytesPerMinute;
+    }
+}
@@ -1,5 +1,7 @@
 package com.zetoinc.edf_file_service.security;
 
+import java.util.Optional;
+
 /**
  * Service interface for authentication.
  * <p>
@@ -20,4 +22,12 @@ public interface AuthService {
      * @return {@code true} if the key is valid, {@code false} otherwise.
      */
     boolean isValidKey(String key);
+
+    /**
+     * Looks up the API key matching the provided authentication key.
+     *
+     * @param key The authentication key provided by the client.
+     * @return The matching API key with its quota, or an empty optional if the key is unknown.
+     */
+    Optional<ApiKey> resolveKey(String key);
 }
@@ -6,24 +6,51 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 /**
  * Implementation of {@link AuthService} that provides authentication
- * using a pre-shared key (PSK) mechanism.
+ * using pre-shared keys (PSK).
  * <p>
- * This service validates access by comparing the provided key with a predefined secret key.
+ * This service validates access by looking up the provided key in a registry of configured keys:
+ * the predefined secret key plus any keys configured in {@link ApiKeyProperties}. The registry is keyed
+ * by the SHA-256 digest of each key, so a lookup is a single hash map access, and the digests are
+ * compared in constant time.
  * </p>
  */
 @Component
 public class AuthServiceImpl implements AuthService {
 
     private static final Logger logger = LoggerFactory.getLogger(AuthServiceImpl.class);
+    private static final String DEFAULT_KEY_NAME = "default";
+
     @Value("${app.secret.key}")
     private String secretKey;
 
+    private final ApiKeyProperties properties;
+    private volatile Map<String, ApiKey> registry;
+
+    /**
+     * Constructs an instance of {@code AuthServiceImpl}.
+     *
+     * @param properties The configured API keys and quotas.
+     */
+    public AuthServiceImpl(ApiKeyProperties properties) {
+        this.properties = properties;
+    }
+
     /**
      * Validates the provided authentication key.
      * <p>
-     * This method checks if the provided key matches the predefined secret key.
+     * This method checks if the provided key matches one of the configured keys.
      * </p>
      *
      * @param key The authentication key provided by the client.
@@ -37,13 +64,82 @@ public class AuthServiceImpl implements AuthService {
             return false;
         }
 
-        // Compare provided key with the predefined secret key
-        boolean isValid = secretKey.equals(key);
-        if (isValid) {
-            logger.info("Authentication successful.");
+        // Look up provided key in the key registry
+        Optional<ApiKey> apiKey = resolveKey(key);
+        if (apiKey.isPresent()) {
+            logger.info("Authentication successful for client: {}", apiKey.get().name());
         } else {
             logger.warn("Authentication failed: Invalid key provided.");
         }
-        return isValid;
+        return apiKey.isPresent();
+    }
+
+    /**
+     * Looks up the API key matching the provided authentication key.
+     *
+     * @param key The authentication key provided by the client.
+     * @return The matching API key with its quota, or an empty optional if the key is unknown.
+     */
+    @Override
+    public Optional<ApiKey> resolveKey(String key) {
+        if (!StringUtils.hasText(key)) {
+            return Optional.empty();
+        }
+        byte[] digest = digest(key);
+        ApiKey apiKey = registry().get(HexFormat.of().formatHex(digest));
+        if (apiKey == null || !MessageDigest.isEqual(apiKey.digest(), digest)) {
+            return Optional.empty();
+        }
+        return Optional.of(apiKey);
+    }
+
+    private Map<String, ApiKey> registry() {
+        Map<String, ApiKey> current = registry;
+        if (current == null) {
+            current = buildRegistry();
+            registry = current;
+        }
+        return current;
+    }
+
+    private Map<String, ApiKey> buildRegistry() {
+        ApiKeyProperties config = properties != null ? properties : new ApiKeyProperties();
+        Map<String, ApiKey> keys = new HashMap<>();
+        // Quotas are enforced per name, so every key needs a name of its own
+        Set<String> names = new HashSet<>();
+        if (StringUtils.hasText(secretKey)) {
+            register(keys, DEFAULT_KEY_NAME, secretKey, config.getDefaultQuota());
+            names.add(DEFAULT_KEY_NAME);
+        }
+        for (ApiKeyProperties.Key key : config.getKeys()) {
+            if (!StringUtils.hasText(key.getKey())) {
+                logger.warn("Ignoring API key without a value: {}", key.getName());
+                continue;
+            }
+            if (!StringUtils.hasText(key.getName())) {
+                logger.warn("Ignoring API key without a name");
+                continue;
+            }
+            if (!names.add(key.getName())) {
+                logger.warn("Ignoring API key with duplicate name: {}", key.getName());
+                continue;
+            }
+            register(keys, key.getName(), key.getKey(), key.getQuota() != null ? key.getQuota() : config.getDefaultQuota());
+        }
+        logger.info("Loaded {} API keys", keys.size());
+        return Map.copyOf(keys);
+    }
+
+    private static void register(Map<String, ApiKey> keys, String name, String key, ApiKeyProperties.Quota quota) {
+        byte[] digest = digest(key);
+        keys.put(HexFormat.of().formatHex(digest), new ApiKey(name, digest, quota));
+    }
+
+    private static byte[] digest(String key) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
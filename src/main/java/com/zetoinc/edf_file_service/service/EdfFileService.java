@@ -4,6 +4,10 @@ import com.zetoinc.edf_file_service.model.EdfMetadata;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Service interface for processing EDF (European Data Format) files.
@@ -27,4 +31,52 @@ public interface EdfFileService {
      * @throws IOException If an error occurs while accessing or processing the file.
      */
     EdfMetadata processEdfFile(String fileUrl) throws IOException;
+
+    /**
+     * Processes an EDF file that is already present on the local filesystem.
+     * <p>
+     * This method extracts the metadata of the file in place, without copying it,
+     * and saves the metadata in the database.
+     * </p>
+     *
+     * @param filePath The path of the EDF file to process.
+     * @return The extracted metadata of the EDF file.
+     */
+    EdfMetadata processLocalEdfFile(Path filePath);
+
+    /**
+     * Processes an EDF file pushed by a client.
+     * <p>
+     * The metadata is extracted from the header as soon as it has arrived and is saved before the rest
+     * of the content is streamed into storage, so the upload is never held in memory as a whole.
+     * </p>
+     *
+     * @param content The content of the EDF file. The stream is consumed and closed.
+     * @return The extracted metadata of the EDF file.
+     */
+    EdfMetadata processEdfUpload(InputStream content);
+
+    /**
+     * Looks up the metadata most recently stored for an EDF file URL, without fetching the file.
+     *
+     * @param fileUrl The URL of the EDF file.
+     * @return The stored metadata, or an empty optional if the file has not been processed yet.
+     */
+    Optional<EdfMetadata> findStoredMetadata(String fileUrl);
+
+    /**
+     * Looks up stored metadata by its ID.
+     *
+     * @param id The ID of the metadata.
+     * @return The metadata, or an empty optional if there is none with this ID.
+     */
+    Optional<EdfMetadata> findMetadata(Long id);
+
+    /**
+     * Looks up the stored metadata of all recordings of a patient.
+     *
+     * @param patientId The patient ID.
+     * @return The metadata in the order it was stored, empty if there is none.
+     */
+    List<EdfMetadata> findMetadataByPatient(String patientId);
 }
@@ -1,29 +1,45 @@
 package com.zetoinc.edf_file_service.service;
 
+import com.zetoinc.edf_file_service.admission.RequestByteCounter;
 import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.InvalidEdfFileException;
 import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.fetch.FetchService;
+import com.zetoinc.edf_file_service.fetch.RemoteHeader;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics.Stage;
 import com.zetoinc.edf_file_service.model.EdfMetadata;
 import com.zetoinc.edf_file_service.repository.EdfMetadataRepository;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.RandomAccessFile;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.regex.Pattern;
 
 /**
  * Service implementation for processing EDF (European Data Format) files.
- * This service downloads an EDF file from a given URL, extracts metadata, and saves it to the database.
+ * This service fetches the header of an EDF file from a given URL, extracts metadata, and saves it to the database.
  */
 @Service
 public class EdfFileServiceImpl implements EdfFileService {
@@ -34,20 +50,33 @@ public class EdfFileServiceImpl implements EdfFileService {
     private static final int LABEL_SIZE = 16;
 
     private final EdfMetadataRepository repository;
+    private final EdfMetrics metrics;
+    private final FetchService fetchService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.storage.directory}")
+    private String storageDirectory;
 
     /**
      * Constructor for EdfFileServiceImpl.
      *
-     * @param repository The repository for storing EDF metadata.
+     * @param repository   The repository for storing EDF metadata.
+     * @param metrics      The metrics recorder for the processing stages.
+     * @param fetchService The service fetching EDF files from remote origins.
+     * @param eventPublisher The publisher of {@link EdfFileStoredEvent}s for locally available files.
      */
-    public EdfFileServiceImpl(EdfMetadataRepository repository) {
+    public EdfFileServiceImpl(EdfMetadataRepository repository, EdfMetrics metrics, FetchService fetchService,
+                              ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.metrics = metrics;
+        this.fetchService = fetchService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
      * Processes an EDF file from a given URL.
      * <p>
-     * This method validates the file URL, downloads the file, extracts metadata, and stores the metadata in the database.
+     * This method validates the file URL, fetches the header of the file, extracts metadata, and stores the metadata in the database.
      * </p>
      *
      * @param fileUrl The URL of the EDF file to process.
@@ -65,17 +94,27 @@ public class EdfFileServiceImpl implements EdfFileService {
             throw new InvalidFileURLException("Invalid EDF file URL. Must be a valid HTTP/HTTPS URL.");
         }
 
+        URL url = null;
         try {
-            // Download the EDF file to a temporary location
-            Path tempFile = Files.createTempFile("edf-file", ".edf");
-            Files.copy(new URL(fileUrl).openStream(), tempFile, StandardCopyOption.REPLACE_EXISTING);
-            logger.info("File successfully downloaded to temporary location: {}", tempFile);
+            url = new URL(fileUrl);
+
+            // Fetch the header of the EDF file, which is all metadata extraction needs
+            Timer.Sample download = Timer.start();
+            RemoteHeader remoteHeader = fetchService.fetchHeader(url);
+            download.stop(metrics.timer(Stage.DOWNLOAD));
+            metrics.recordBytesFetched(remoteHeader.bytesFetched());
+            RequestByteCounter.add(remoteHeader.bytesFetched());
+            logger.info("EDF header successfully fetched, {} bytes transferred", remoteHeader.bytesFetched());
 
             // Extract metadata
-            EdfMetadata metadata = extractEdfMetadata(tempFile);
+            Timer.Sample parse = Timer.start();
+            EdfMetadata metadata = EdfHeaderParser.parse(remoteHeader.header());
+            metadata.setSourceUri(fileUrl);
+            parse.stop(metrics.timer(Stage.HEADER_PARSE));
+            metrics.recordBytesNeeded(remoteHeader.header().length);
 
             // Save metadata to database
-            EdfMetadata savedMetadata = repository.save(metadata);
+            EdfMetadata savedMetadata = save(metadata);
             logger.info("EDF metadata successfully saved with ID: {}", savedMetadata.getId());
 
             return savedMetadata;
@@ -84,10 +123,174 @@ public class EdfFileServiceImpl implements EdfFileService {
             throw new InvalidFileURLException("Malformed EDF file URL: " + fileUrl);
         } catch (IOException e) {
             logger.error("Error processing EDF file: {}", fileUrl, e);
+            metrics.recordFetchFailure(url != null ? url.getHost() : null);
             throw new FileProcessingException("Error processing EDF file: " + fileUrl, e);
         }
     }
-    private EdfMetadata extractEdfMetadata(Path filePath) throws IOException {
+
+    /**
+     * Processes an EDF file that is already present on the local filesystem.
+     * <p>
+     * The file is read in place, so this is the path used for files dropped into a watched directory.
+     * </p>
+     *
+     * @param filePath The path of the EDF file to process.
+     * @return The extracted metadata of the EDF file.
+     * @throws FileProcessingException If the file does not exist or cannot be read.
+     */
+    @Override
+    public EdfMetadata processLocalEdfFile(Path filePath) {
+        logger.info("Processing local EDF file: {}", filePath);
+
+        if (filePath == null || !Files.isRegularFile(filePath)) {
+            logger.error("Local EDF file not found: {}", filePath);
+            throw new FileProcessingException("EDF file not found: " + filePath);
+        }
+
+        try {
+            // Read the attributes first, so that a file changing while it is parsed is not recorded as unchanged
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            Timer.Sample parse = Timer.start();
+            EdfMetadata metadata = extractEdfMetadata(filePath);
+            metadata.setSourceUri(filePath.toUri().toString());
+            metadata.setSourceSize(attributes.size());
+            metadata.setSourceLastModified(attributes.lastModifiedTime().toMillis());
+            parse.stop(metrics.timer(Stage.HEADER_PARSE));
+
+            EdfMetadata savedMetadata = save(metadata);
+            logger.info("EDF metadata successfully saved with ID: {}", savedMetadata.getId());
+            eventPublisher.publishEvent(new EdfFileStoredEvent(savedMetadata, filePath));
+
+            return savedMetadata;
+        } catch (IOException e) {
+            logger.error("Error processing local EDF file: {}", filePath, e);
+            throw new FileProcessingException("Error processing EDF file: " + filePath, e);
+        }
+    }
+
+    /**
+     * Processes an EDF file pushed by a client.
+     * <p>
+     * The header is parsed from the first bytes of the stream and the metadata is saved right away.
+     * The header and the remaining content are then streamed into the storage directory. If the upload
+     * breaks off or anything else fails, the partial file is removed again, and so is the metadata if it was saved.
+     * </p>
+     *
+     * @param content The content of the EDF file. The stream is consumed and closed.
+     * @return The extracted metadata of the EDF file.
+     * @throws InvalidEdfFileException If the content ends before the EDF header is complete.
+     * @throws FileProcessingException If the content cannot be stored.
+     */
+    @Override
+    public EdfMetadata processEdfUpload(InputStream content) {
+        Path target = Paths.get(storageDirectory).resolve(UUID.randomUUID() + ".edf");
+        logger.info("Receiving EDF upload into: {}", target);
+
+        EdfMetadata savedMetadata = null;
+        try (InputStream in = content) {
+            Files.createDirectories(target.getParent());
+            try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW)) {
+                // Extract and save metadata as soon as the header has arrived
+                Timer.Sample parse = Timer.start();
+                byte[] header = EdfHeaderParser.readHeader(in);
+                EdfMetadata metadata = EdfHeaderParser.parse(header);
+                metadata.setSourceUri(target.toUri().toString());
+                parse.stop(metrics.timer(Stage.HEADER_PARSE));
+                savedMetadata = save(metadata);
+                logger.info("EDF metadata successfully saved with ID: {}", savedMetadata.getId());
+
+                // Stream the rest of the body straight into storage
+                Timer.Sample upload = Timer.start();
+                out.write(header);
+                long size = header.length + in.transferTo(out);
+                upload.stop(metrics.timer(Stage.UPLOAD));
+                RequestByteCounter.add(size);
+                logger.info("EDF upload of {} bytes successfully stored: {}", size, target);
+            }
+            eventPublisher.publishEvent(new EdfFileStoredEvent(savedMetadata, target));
+            return savedMetadata;
+        } catch (EOFException e) {
+            discardUpload(target, savedMetadata);
+            logger.error("EDF upload ended before the header was complete", e);
+            throw new InvalidEdfFileException("Uploaded content is not a complete EDF file.", e);
+        } catch (IOException e) {
+            discardUpload(target, savedMetadata);
+            logger.error("Error storing EDF upload: {}", target, e);
+            throw new FileProcessingException("Error storing EDF upload.", e);
+        } catch (RuntimeException e) {
+            // E.g. an invalid header or a failing save, which must not leave a partial file behind either
+            discardUpload(target, savedMetadata);
+            logger.error("Error storing EDF upload: {}", target, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up the metadata most recently stored for an EDF file URL, without fetching the file.
+     *
+     * @param fileUrl The URL of the EDF file.
+     * @return The stored metadata, or an empty optional if the file has not been processed yet.
+     */
+    @Override
+    public Optional<EdfMetadata> findStoredMetadata(String fileUrl) {
+        if (!StringUtils.hasText(fileUrl)) {
+            return Optional.empty();
+        }
+        return repository.findFirstBySourceUriOrderByIdDesc(fileUrl);
+    }
+
+    /**
+     * Looks up stored metadata by its ID. Repeated lookups are served from the metadata cache.
+     *
+     * @param id The ID of the metadata.
+     * @return The metadata, or an empty optional if there is none with this ID.
+     */
+    @Override
+    public Optional<EdfMetadata> findMetadata(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return repository.findById(id);
+    }
+
+    /**
+     * Looks up the stored metadata of all recordings of a patient. Repeated lookups are served from the metadata cache.
+     *
+     * @param patientId The patient ID.
+     * @return The metadata in the order it was stored, empty if there is none.
+     */
+    @Override
+    public List<EdfMetadata> findMetadataByPatient(String patientId) {
+        if (!StringUtils.hasText(patientId)) {
+            return List.of();
+        }
+        return repository.findByPatientIdOrderByIdAsc(patientId);
+    }
+
+    private EdfMetadata save(EdfMetadata metadata) {
+        Timer.Sample persistence = Timer.start();
+        try {
+            return repository.save(metadata);
+        } finally {
+            persistence.stop(metrics.timer(Stage.PERSISTENCE));
+        }
+    }
+
+    private void discardUpload(Path target, EdfMetadata savedMetadata) {
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException e) {
+            logger.warn("Unable to delete partial EDF upload: {}", target, e);
+        }
+        if (savedMetadata != null) {
+            repository.delete(savedMetadata);
+        }
+    }
+
+    /**
+     * Extracts the metadata of an EDF file on disk. Package-private so it can be benchmarked against {@link EdfHeaderParser}.
+     */
+    EdfMetadata extractEdfMetadata(Path filePath) throws IOException {
         try (RandomAccessFile raf = new RandomAccessFile(filePath.toFile(), "r")) {
             /*// Validate the file starts with EDF format (First 8 bytes should contain "0       EDF")
             raf.seek(0);
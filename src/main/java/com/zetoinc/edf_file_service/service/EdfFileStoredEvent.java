@@ -0,0 +1,15 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+
+import java.nio.file.Path;
+
+/**
+ * Published after the metadata of an EDF file that is available on the local filesystem has been saved,
+ * i.e. for uploads and files from watched directories, so that later stages can process the file.
+ *
+ * @param metadata The saved metadata.
+ * @param file     The EDF file.
+ */
+public record EdfFileStoredEvent(EdfMetadata metadata, Path file) {
+}
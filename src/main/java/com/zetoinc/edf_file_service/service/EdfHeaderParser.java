@@ -0,0 +1,132 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses EDF metadata from the raw header bytes of a file.
+ * <p>
+ * Unlike {@link EdfFileServiceImpl}, which reads a file that is already on disk, this parser only needs the
+ * header itself. It can therefore extract the metadata from the first bytes of a stream while the rest of
+ * the file is still arriving. The fields are read from the same offsets as the file based extraction.
+ * </p>
+ */
+public final class EdfHeaderParser {
+
+    /**
+     * Size of the fixed part of the header, which precedes the per-channel fields.
+     */
+    public static final int FIXED_HEADER_SIZE = 256;
+
+    /**
+     * Size of a single channel label.
+     */
+    public static final int LABEL_SIZE = 16;
+
+    private EdfHeaderParser() {
+    }
+
+    /**
+     * Reads exactly the header bytes needed for {@link #parse(byte[])} from the given stream.
+     * <p>
+     * The stream is left positioned right after the channel labels, so the caller can continue
+     * copying the remainder of the file.
+     * </p>
+     *
+     * @param in The stream positioned at the start of an EDF file.
+     * @return The fixed header followed by the channel labels.
+     * @throws EOFException If the stream ends before the header is complete.
+     * @throws IOException  If the stream cannot be read.
+     */
+    public static byte[] readHeader(InputStream in) throws IOException {
+        byte[] fixedHeader = readFully(in, FIXED_HEADER_SIZE);
+        int numChannels = channelCount(fixedHeader);
+        byte[] labels = readFully(in, numChannels * LABEL_SIZE);
+
+        byte[] header = new byte[fixedHeader.length + labels.length];
+        System.arraycopy(fixedHeader, 0, header, 0, fixedHeader.length);
+        System.arraycopy(labels, 0, header, fixedHeader.length, labels.length);
+        return header;
+    }
+
+    /**
+     * Returns the number of channels declared in the fixed header.
+     *
+     * @param header The header bytes, at least {@link #FIXED_HEADER_SIZE} long.
+     * @return The number of channels, or {@code 0} if the field cannot be parsed.
+     */
+    public static int channelCount(byte[] header) {
+        return Math.max(parseIntSafely(field(header, 252, 4), 0), 0);
+    }
+
+    /**
+     * Returns the number of header bytes {@link #parse(byte[])} needs for the given channel count.
+     *
+     * @param numChannels The number of channels.
+     * @return The length of the fixed header plus the channel labels.
+     */
+    public static int headerLength(int numChannels) {
+        return FIXED_HEADER_SIZE + numChannels * LABEL_SIZE;
+    }
+
+    /**
+     * Extracts the metadata from the given header bytes.
+     *
+     * @param header The fixed header followed by the channel labels.
+     * @return The extracted metadata, not yet persisted.
+     * @throws IllegalArgumentException If the header is shorter than the declared channels require.
+     */
+    public static EdfMetadata parse(byte[] header) {
+        int numChannels = channelCount(header);
+        if (header.length < headerLength(numChannels)) {
+            throw new IllegalArgumentException("EDF header is truncated: expected " + headerLength(numChannels)
+                    + " bytes but got " + header.length);
+        }
+
+        String patientId = field(header, 168, 20);
+        String startDate = field(header, 97, 16);
+        double duration = parseDoubleSafely(field(header, 244, 8), 0.0);
+        int numAnnotations = parseIntSafely(field(header, 236, 4), 0);
+
+        List<String> channelNames = new ArrayList<>(numChannels);
+        for (int i = 0; i < numChannels; i++) {
+            channelNames.add(field(header, FIXED_HEADER_SIZE + i * LABEL_SIZE, LABEL_SIZE));
+        }
+
+        return new EdfMetadata(null, "EDF File", patientId, numChannels, duration, numAnnotations, startDate, channelNames);
+    }
+
+    private static byte[] readFully(InputStream in, int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Unexpected end of EDF header after " + bytes.length + " of " + length + " bytes");
+        }
+        return bytes;
+    }
+
+    private static String field(byte[] header, int offset, int length) {
+        return new String(header, offset, length, StandardCharsets.UTF_8).trim();
+    }
+
+    private static double parseDoubleSafely(String value, double defaultValue) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static int parseIntSafely(String value, int defaultValue) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.zetoinc.edf_file_service.service;
+
+/**
+ * Decodes EDF samples into physical values.
+ * <p>
+ * EDF stores every sample as a 16-bit little-endian two's complement integer. The physical value is a linear
+ * mapping of the digital value, defined by the digital and physical minimum and maximum of the channel.
+ * </p>
+ */
+public final class EdfSampleDecoder {
+
+    /**
+     * Number of bytes per stored sample.
+     */
+    public static final int BYTES_PER_SAMPLE = 2;
+
+    private EdfSampleDecoder() {
+    }
+
+    /**
+     * Returns the factor a digital value is multiplied by to get the physical value.
+     *
+     * @param physicalMin The physical minimum of the channel.
+     * @param physicalMax The physical maximum of the channel.
+     * @param digitalMin  The digital minimum of the channel.
+     * @param digitalMax  The digital maximum of the channel.
+     * @return The gain of the channel, or {@code 1.0} if the digital range is empty.
+     */
+    public static double gain(double physicalMin, double physicalMax, int digitalMin, int digitalMax) {
+        if (digitalMax == digitalMin) {
+            return 1.0;
+        }
+        return (physicalMax - physicalMin) / (digitalMax - digitalMin);
+    }
+
+    /**
+     * Returns the value added to the scaled digital value to get the physical value.
+     *
+     * @param physicalMin The physical minimum of the channel.
+     * @param digitalMin  The digital minimum of the channel.
+     * @param gain        The gain of the channel, see {@link #gain(double, double, int, int)}.
+     * @return The offset of the channel.
+     */
+    public static double offset(double physicalMin, int digitalMin, double gain) {
+        return physicalMin - digitalMin * gain;
+    }
+
+    /**
+     * Reads a single digital sample.
+     *
+     * @param data     The raw data.
+     * @param position The byte position of the sample.
+     * @return The digital value.
+     */
+    public static short digitalValue(byte[] data, int position) {
+        return (short) ((data[position] & 0xff) | (data[position + 1] << 8));
+    }
+
+    /**
+     * Decodes consecutive samples into physical values.
+     *
+     * @param data      The raw data.
+     * @param position  The byte position of the first sample.
+     * @param count     The number of samples to decode.
+     * @param gain      The gain of the channel.
+     * @param offset    The offset of the channel.
+     * @param out       The array receiving the physical values.
+     * @param outOffset The index in {@code out} of the first decoded value.
+     */
+    public static void decode(byte[] data, int position, int count, double gain, double offset, double[] out, int outOffset) {
+        for (int i = 0; i < count; i++) {
+            out[outOffset + i] = digitalValue(data, position + i * BYTES_PER_SAMPLE) * gain + offset;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.zetoinc.edf_file_service.service;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The complete EDF header, including the per-signal fields needed to locate and scale samples.
+ * <p>
+ * {@link EdfHeaderParser} only reads what the metadata needs. Reading signal data additionally requires the
+ * number of data records, the record duration and, per signal, the number of samples per record and the
+ * digital and physical ranges. Every data record stores the samples of signal 0, then signal 1, and so on.
+ * </p>
+ */
+public final class EdfSignalHeader {
+
+    /**
+     * Size of the header fields of a single signal.
+     */
+    public static final int SIGNAL_HEADER_SIZE = 256;
+
+    private final byte[] bytes;
+    private final int records;
+    private final double recordDuration;
+    private final List<Signal> signals;
+    private final int recordSize;
+
+    private EdfSignalHeader(byte[] bytes, int records, double recordDuration, List<Signal> signals) {
+        this.bytes = bytes;
+        this.records = records;
+        this.recordDuration = recordDuration;
+        this.signals = signals;
+        this.recordSize = signals.stream().mapToInt(Signal::samplesPerRecord).sum() * EdfSampleDecoder.BYTES_PER_SAMPLE;
+    }
+
+    /**
+     * Reads the complete header from the start of a file.
+     *
+     * @param channel The file.
+     * @return The parsed header.
+     * @throws EOFException If the file ends before the header is complete.
+     * @throws IOException  If the file cannot be read or the header is invalid.
+     */
+    public static EdfSignalHeader read(FileChannel channel) throws IOException {
+        byte[] fixedHeader = readFully(channel, 0, EdfHeaderParser.FIXED_HEADER_SIZE);
+        int signals = EdfHeaderParser.channelCount(fixedHeader);
+        byte[] header = new byte[EdfHeaderParser.FIXED_HEADER_SIZE + signals * SIGNAL_HEADER_SIZE];
+        System.arraycopy(fixedHeader, 0, header, 0, fixedHeader.length);
+        byte[] signalHeaders = readFully(channel, fixedHeader.length, header.length - fixedHeader.length);
+        System.arraycopy(signalHeaders, 0, header, fixedHeader.length, signalHeaders.length);
+        return parse(header);
+    }
+
+    /**
+     * Parses a complete header.
+     *
+     * @param header The fixed header followed by the header fields of every signal.
+     * @return The parsed header.
+     * @throws IOException If the header is truncated or a required field cannot be parsed.
+     */
+    public static EdfSignalHeader parse(byte[] header) throws IOException {
+        int count = EdfHeaderParser.channelCount(header);
+        int base = EdfHeaderParser.FIXED_HEADER_SIZE;
+        if (header.length < base + count * SIGNAL_HEADER_SIZE) {
+            throw new EOFException("EDF header is truncated: expected " + (base + count * SIGNAL_HEADER_SIZE)
+                    + " bytes but got " + header.length);
+        }
+
+        int records = parseInt(field(header, 236, 8), "number of data records");
+        double recordDuration = parseDouble(field(header, 244, 8), "duration of a data record");
+        List<Signal> signals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            signals.add(new Signal(
+                    field(header, base + i * 16, 16),
+                    parseDouble(field(header, base + count * 104 + i * 8, 8), "physical minimum"),
+                    parseDouble(field(header, base + count * 112 + i * 8, 8), "physical maximum"),
+                    parseInt(field(header, base + count * 120 + i * 8, 8), "digital minimum"),
+                    parseInt(field(header, base + count * 128 + i * 8, 8), "digital maximum"),
+                    parseInt(field(header, base + count * 216 + i * 8, 8), "number of samples")));
+        }
+        return new EdfSignalHeader(header.clone(), records, recordDuration, List.copyOf(signals));
+    }
+
+    /**
+     * Returns the raw header bytes.
+     *
+     * @return A copy of the header.
+     */
+    public byte[] bytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * Returns the size of the header, i.e. the byte offset of the first data record.
+     *
+     * @return The header size in bytes.
+     */
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Returns the number of data records.
+     *
+     * @return The number of data records.
+     */
+    public int records() {
+        return records;
+    }
+
+    /**
+     * Returns the duration of a data record.
+     *
+     * @return The record duration in seconds.
+     */
+    public double recordDuration() {
+        return recordDuration;
+    }
+
+    /**
+     * Returns the signals in the order they are stored in a data record.
+     *
+     * @return The signals.
+     */
+    public List<Signal> signals() {
+        return signals;
+    }
+
+    /**
+     * Returns the size of a single data record.
+     *
+     * @return The record size in bytes.
+     */
+    public int recordSize() {
+        return recordSize;
+    }
+
+    /**
+     * Returns the byte offset of a signal's samples within a data record.
+     *
+     * @param signal The index of the signal.
+     * @return The offset in bytes.
+     */
+    public int offsetInRecord(int signal) {
+        int samples = 0;
+        for (int i = 0; i < signal; i++) {
+            samples += signals.get(i).samplesPerRecord();
+        }
+        return samples * EdfSampleDecoder.BYTES_PER_SAMPLE;
+    }
+
+    /**
+     * Returns the sample rate of a signal.
+     *
+     * @param signal The index of the signal.
+     * @return The sample rate in Hz.
+     */
+    public double sampleRate(int signal) {
+        return recordDuration > 0 ? signals.get(signal).samplesPerRecord() / recordDuration : 0;
+    }
+
+    private static byte[] readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of EDF header after " + buffer.position() + " of " + length + " bytes");
+            }
+        }
+        return buffer.array();
+    }
+
+    private static String field(byte[] header, int offset, int length) {
+        return new String(header, offset, length, StandardCharsets.US_ASCII).trim();
+    }
+
+    private static int parseInt(String value, String name) throws IOException {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + name + " in EDF header: '" + value + "'", e);
+        }
+    }
+
+    private static double parseDouble(String value, String name) throws IOException {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid " + name + " in EDF header: '" + value + "'", e);
+        }
+    }
+
+    /**
+     * The header fields of a single signal.
+     *
+     * @param label            The signal label, e.g. {@code EEG Fp1}.
+     * @param physicalMin      The physical minimum.
+     * @param physicalMax      The physical maximum.
+     * @param digitalMin       The digital minimum.
+     * @param digitalMax       The digital maximum.
+     * @param samplesPerRecord The number of samples in each data record.
+     */
+    public record Signal(String label, double physicalMin, double physicalMax,
+                         int digitalMin, int digitalMax, int samplesPerRecord) {
+
+        /**
+         * Returns the factor a digital value is multiplied by to get the physical value.
+         *
+         * @return The gain of the signal.
+         */
+        public double gain() {
+            return EdfSampleDecoder.gain(physicalMin, physicalMax, digitalMin, digitalMax);
+        }
+
+        /**
+         * Returns the value added to the scaled digital value to get the physical value.
+         *
+         * @return The offset of the signal.
+         */
+        public double offset() {
+            return EdfSampleDecoder.offset(physicalMin, digitalMin, gain());
+        }
+    }
+}
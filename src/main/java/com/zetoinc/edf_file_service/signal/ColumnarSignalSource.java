@@ -0,0 +1,211 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.service.EdfSignalHeader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads signals from a file written by {@link ColumnarTranscoder}.
+ * <p>
+ * The chunk index is loaded when the file is opened. A read then only transfers and inflates the chunks of the
+ * requested signal that overlap the requested samples. The most recently decoded chunk is kept, so consecutive
+ * reads within one chunk inflate it once. Instances are not thread-safe.
+ * </p>
+ */
+public final class ColumnarSignalSource implements SignalSource {
+
+    /**
+     * Marks the start and the end of a columnar file: {@code "EDFC"} in ASCII.
+     */
+    static final int MAGIC = 0x45444643;
+
+    /**
+     * Version of the file layout.
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the trailer at the end of the file.
+     */
+    static final int TRAILER_SIZE = 20;
+
+    /**
+     * Maximum size of a zigzag varint encoded difference of two 16-bit samples.
+     */
+    static final int MAX_VARINT_BYTES = 3;
+
+    private final FileChannel channel;
+    private final EdfSignalHeader header;
+    private final int records;
+    private final int recordsPerWindow;
+    private final int windows;
+    private final long[] chunkOffsets;
+    private final int[] chunkLengths;
+    private final Inflater inflater = new Inflater(true);
+
+    private byte[] compressed = new byte[0];
+    private byte[] encoded = new byte[0];
+    private int cachedChunk = -1;
+    private short[] cachedSamples = new short[0];
+    private int cachedCount;
+
+    private ColumnarSignalSource(FileChannel channel, EdfSignalHeader header, int records, int recordsPerWindow,
+                                 long[] chunkOffsets, int[] chunkLengths) {
+        this.channel = channel;
+        this.header = header;
+        this.records = records;
+        this.recordsPerWindow = recordsPerWindow;
+        this.windows = (records + recordsPerWindow - 1) / recordsPerWindow;
+        this.chunkOffsets = chunkOffsets;
+        this.chunkLengths = chunkLengths;
+    }
+
+    /**
+     * Opens a columnar file.
+     *
+     * @param path The columnar file.
+     * @return The open source.
+     * @throws IOException If the file cannot be opened or is not a complete columnar file.
+     */
+    public static ColumnarSignalSource open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            ByteBuffer trailer = read(channel, size - TRAILER_SIZE, TRAILER_SIZE);
+            long indexOffset = trailer.getLong();
+            int records = trailer.getInt();
+            int recordsPerWindow = trailer.getInt();
+            ByteBuffer prefix = read(channel, 0, 12);
+            if (trailer.getInt() != MAGIC || prefix.getInt() != MAGIC) {
+                throw new IOException("Not a columnar EDF file: " + path);
+            }
+            if (prefix.getInt() != VERSION) {
+                throw new IOException("Unsupported columnar EDF file version: " + path);
+            }
+            EdfSignalHeader header = EdfSignalHeader.parse(read(channel, 12, prefix.getInt()).array());
+
+            int chunks = (int) ((size - TRAILER_SIZE - indexOffset) / 12);
+            ByteBuffer index = read(channel, indexOffset, chunks * 12);
+            long[] chunkOffsets = new long[chunks];
+            int[] chunkLengths = new int[chunks];
+            for (int i = 0; i < chunks; i++) {
+                chunkOffsets[i] = index.getLong();
+                chunkLengths[i] = index.getInt();
+            }
+            return new ColumnarSignalSource(channel, header, records, recordsPerWindow, chunkOffsets, chunkLengths);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public EdfSignalHeader header() {
+        return header;
+    }
+
+    @Override
+    public int records() {
+        return records;
+    }
+
+    @Override
+    public void readDigital(int signal, long fromSample, short[] out) throws IOException {
+        long samplesPerWindow = (long) header.signals().get(signal).samplesPerRecord() * recordsPerWindow;
+        int done = 0;
+        while (done < out.length) {
+            long sample = fromSample + done;
+            int window = (int) (sample / samplesPerWindow);
+            int inWindow = (int) (sample % samplesPerWindow);
+            decodeChunk(signal, window);
+            int count = Math.min(cachedCount - inWindow, out.length - done);
+            if (count <= 0) {
+                throw new EOFException("Sample " + sample + " is beyond the end of the recording");
+            }
+            System.arraycopy(cachedSamples, inWindow, out, done, count);
+            done += count;
+        }
+    }
+
+    private void decodeChunk(int signal, int window) throws IOException {
+        int chunk = signal * windows + window;
+        if (chunk == cachedChunk) {
+            return;
+        }
+        int windowRecords = Math.min(recordsPerWindow, records - window * recordsPerWindow);
+        int count = windowRecords * header.signals().get(signal).samplesPerRecord();
+
+        int length = chunkLengths[chunk];
+        // One extra byte, as raw inflation may need input beyond the end of the deflated data
+        if (compressed.length < length + 1) {
+            compressed = new byte[length + 1];
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(compressed, 0, length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, chunkOffsets[chunk] + buffer.position()) < 0) {
+                throw new EOFException("Columnar EDF file ends within chunk " + chunk);
+            }
+        }
+
+        if (encoded.length < count * MAX_VARINT_BYTES) {
+            encoded = new byte[count * MAX_VARINT_BYTES];
+        }
+        int encodedLength;
+        try {
+            inflater.reset();
+            inflater.setInput(compressed, 0, length + 1);
+            encodedLength = inflater.inflate(encoded);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt chunk " + chunk + " in columnar EDF file", e);
+        }
+
+        if (cachedSamples.length < count) {
+            cachedSamples = new short[count];
+        }
+        int position = 0;
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position >= encodedLength) {
+                    throw new IOException("Truncated chunk " + chunk + " in columnar EDF file");
+                }
+                b = encoded[position++];
+                value |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            previous += (value >>> 1) ^ -(value & 1);
+            cachedSamples[i] = (short) previous;
+        }
+        cachedChunk = chunk;
+        cachedCount = count;
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        if (position < 0 || length < 0) {
+            throw new IOException("Invalid columnar EDF file");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of columnar EDF file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        channel.close();
+    }
+}
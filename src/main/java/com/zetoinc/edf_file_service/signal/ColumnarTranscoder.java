@@ -0,0 +1,164 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.service.EdfSampleDecoder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+
+/**
+ * Rewrites an EDF file into the columnar layout read by {@link ColumnarSignalSource}.
+ * <p>
+ * The data records are split into windows of a fixed number of records. Within a window, the samples of each
+ * signal are stored together as one chunk: every sample is replaced by its difference to the previous sample,
+ * which is small for physiological signals, written as a zigzag varint and compressed with {@link Deflater}.
+ * An index of all chunks follows the data, so a read of one signal over a time range only inflates the chunks
+ * of that signal which overlap the range.
+ * </p>
+ * <p>
+ * File layout, all integers big-endian:
+ * </p>
+ * <pre>
+ * "EDFC" magic, int version, int header length, the original EDF header
+ * chunks, window by window, signal by signal within each window
+ * index: for each signal, for each window: long chunk offset, int chunk length
+ * trailer: long index offset, int data records, int records per window, "EDFC" magic
+ * </pre>
+ */
+public final class ColumnarTranscoder {
+
+    private ColumnarTranscoder() {
+    }
+
+    /**
+     * Transcodes an EDF file.
+     *
+     * @param source           The EDF file.
+     * @param target           The columnar file to write; replaced if it exists.
+     * @param recordsPerWindow The number of data records per chunk.
+     * @param compressionLevel The {@link Deflater} compression level, {@code 1} (fastest) to {@code 9} (smallest).
+     * @return The sizes of the source and the written file.
+     * @throws IOException If the source cannot be read or the target cannot be written.
+     */
+    public static Result transcode(Path source, Path target, int recordsPerWindow, int compressionLevel) throws IOException {
+        int window = Math.max(1, recordsPerWindow);
+        try (EdfSignalSource edf = EdfSignalSource.open(source);
+             InputStream in = Files.newInputStream(source);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 1 << 16))) {
+
+            byte[] header = edf.header().bytes();
+            int signals = edf.header().signals().size();
+            int records = edf.records();
+            int windows = (records + window - 1) / window;
+            int recordSize = edf.header().recordSize();
+            int[] offsets = new int[signals];
+            for (int s = 0; s < signals; s++) {
+                offsets[s] = edf.header().offsetInRecord(s);
+            }
+
+            out.writeInt(ColumnarSignalSource.MAGIC);
+            out.writeInt(ColumnarSignalSource.VERSION);
+            out.writeInt(header.length);
+            out.write(header);
+            long position = 12L + header.length;
+            in.skipNBytes(header.length);
+
+            long[] chunkOffsets = new long[signals * windows];
+            int[] chunkLengths = new int[signals * windows];
+            byte[] windowData = new byte[window * recordSize];
+            Deflater deflater = new Deflater(compressionLevel, true);
+            try {
+                for (int w = 0; w < windows; w++) {
+                    int windowRecords = Math.min(window, records - w * window);
+                    in.readNBytes(windowData, 0, windowRecords * recordSize);
+                    for (int s = 0; s < signals; s++) {
+                        int samplesPerRecord = edf.header().signals().get(s).samplesPerRecord();
+                        byte[] encoded = new byte[windowRecords * samplesPerRecord * ColumnarSignalSource.MAX_VARINT_BYTES];
+                        int length = 0;
+                        int previous = 0;
+                        for (int r = 0; r < windowRecords; r++) {
+                            int base = r * recordSize + offsets[s];
+                            for (int i = 0; i < samplesPerRecord; i++) {
+                                int value = EdfSampleDecoder.digitalValue(windowData, base + i * EdfSampleDecoder.BYTES_PER_SAMPLE);
+                                length = writeVarint(encoded, length, zigzag(value - previous));
+                                previous = value;
+                            }
+                        }
+
+                        int index = s * windows + w;
+                        chunkOffsets[index] = position;
+                        chunkLengths[index] = deflate(deflater, encoded, length, out);
+                        position += chunkLengths[index];
+                    }
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long indexOffset = position;
+            for (int i = 0; i < chunkOffsets.length; i++) {
+                out.writeLong(chunkOffsets[i]);
+                out.writeInt(chunkLengths[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(records);
+            out.writeInt(window);
+            out.writeInt(ColumnarSignalSource.MAGIC);
+            out.flush();
+
+            long targetSize = indexOffset + chunkOffsets.length * 12L + ColumnarSignalSource.TRAILER_SIZE;
+            return new Result(header.length + (long) records * recordSize, targetSize, chunkOffsets.length);
+        }
+    }
+
+    private static int deflate(Deflater deflater, byte[] data, int length, OutputStream out) throws IOException {
+        deflater.reset();
+        deflater.setInput(data, 0, length);
+        deflater.finish();
+        byte[] buffer = new byte[Math.max(64, length / 2)];
+        int total = 0;
+        while (!deflater.finished()) {
+            int n = deflater.deflate(buffer);
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int writeVarint(byte[] buffer, int position, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * The outcome of a transcoding.
+     *
+     * @param sourceBytes     The size of the header and the complete data records of the EDF file.
+     * @param transcodedBytes The size of the columnar file.
+     * @param chunks          The number of chunks written.
+     */
+    public record Result(long sourceBytes, long transcodedBytes, int chunks) {
+
+        /**
+         * Returns how many times smaller the columnar file is than the EDF file.
+         *
+         * @return The compression ratio.
+         */
+        public double compressionRatio() {
+            return transcodedBytes > 0 ? (double) sourceBytes / transcodedBytes : 0;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics.Stage;
+import com.zetoinc.edf_file_service.service.EdfFileStoredEvent;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optionally transcodes stored EDF files into the columnar layout after they have been ingested.
+ * <p>
+ * Transcoding runs on a single background thread, so ingestion is not slowed down; files arriving while the
+ * queue is full are skipped and keep being read from the EDF file. The columnar copy is written to a temporary
+ * file and moved into place when complete, so readers never see a partial copy. Columnar copies are used for
+ * reads whenever they exist, even if transcoding has been disabled since.
+ * </p>
+ */
+@Component
+public class ColumnarTranscodingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarTranscodingService.class);
+    private static final String EXTENSION = ".edfc";
+
+    private final EdfMetrics metrics;
+
+    @Value("${app.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.columnar.directory:data/columnar}")
+    private String directory;
+
+    @Value("${app.columnar.chunk-seconds:10}")
+    private double chunkSeconds;
+
+    @Value("${app.columnar.compression-level:6}")
+    private int compressionLevel;
+
+    @Value("${app.columnar.queue-capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Constructs an instance of {@code ColumnarTranscodingService}.
+     *
+     * @param metrics The metrics the transcoding results are recorded in.
+     */
+    public ColumnarTranscodingService(EdfMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Starts the transcoding thread if transcoding is enabled.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "edf-columnar-transcoder");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Columnar transcoding enabled into directory: {}", directory);
+    }
+
+    /**
+     * Stops the transcoding thread, waiting briefly for the file being transcoded.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a stored EDF file for transcoding, if transcoding is enabled.
+     *
+     * @param event The event describing the stored file.
+     */
+    @EventListener
+    public void onFileStored(EdfFileStoredEvent event) {
+        if (executor == null || event.metadata().getId() == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> transcodeQuietly(event.metadata().getId(), event.file()));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Columnar transcoding queue is full, skipping EDF file: {}", event.file());
+        }
+    }
+
+    /**
+     * Returns the columnar copy of a recording, if one has been written.
+     *
+     * @param metadataId The ID of the recording's metadata.
+     * @return The columnar file, or an empty optional if there is none.
+     */
+    public Optional<Path> columnarFile(Long metadataId) {
+        Path path = columnarPath(metadataId);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Transcodes an EDF file into its columnar copy.
+     *
+     * @param metadataId The ID of the recording's metadata.
+     * @param file       The EDF file.
+     * @return The sizes of the EDF file and the columnar copy.
+     * @throws IOException If the file cannot be read or the copy cannot be written.
+     */
+    public ColumnarTranscoder.Result transcode(Long metadataId, Path file) throws IOException {
+        Path target = columnarPath(metadataId);
+        Files.createDirectories(target.getParent());
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+
+        Timer.Sample sample = Timer.start();
+        try (EdfSignalSource edf = EdfSignalSource.open(file)) {
+            int recordsPerWindow = edf.header().recordDuration() > 0
+                    ? (int) Math.max(1, Math.round(chunkSeconds / edf.header().recordDuration()))
+                    : 1;
+            ColumnarTranscoder.Result result = ColumnarTranscoder.transcode(file, temporary, recordsPerWindow, compressionLevel);
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            sample.stop(metrics.timer(Stage.TRANSCODE));
+            metrics.recordTranscode(result.sourceBytes(), result.transcodedBytes());
+            logger.info("Transcoded EDF file {} into {} chunks, {} -> {} bytes (compression ratio {})", file,
+                    result.chunks(), result.sourceBytes(), result.transcodedBytes(),
+                    String.format(Locale.ROOT, "%.2f", result.compressionRatio()));
+            return result;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void transcodeQuietly(Long metadataId, Path file) {
+        try {
+            transcode(metadataId, file);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to transcode EDF file: {}", file, e);
+        }
+    }
+
+    private Path columnarPath(Long metadataId) {
+        return Paths.get(directory).resolve(metadataId + EXTENSION);
+    }
+}
@@ -0,0 +1,108 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.service.EdfSampleDecoder;
+import com.zetoinc.edf_file_service.service.EdfSignalHeader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads signals directly from an EDF file.
+ * <p>
+ * Since every data record interleaves all signals, reading one signal takes a separate read per data record,
+ * each of which only transfers that signal's part of the record.
+ * </p>
+ */
+public final class EdfSignalSource implements SignalSource {
+
+    private final FileChannel channel;
+    private final EdfSignalHeader header;
+    private final int records;
+
+    private EdfSignalSource(FileChannel channel, EdfSignalHeader header, int records) {
+        this.channel = channel;
+        this.header = header;
+        this.records = records;
+    }
+
+    /**
+     * Opens an EDF file.
+     *
+     * @param path The EDF file.
+     * @return The open source.
+     * @throws IOException If the file cannot be opened or its header is invalid.
+     */
+    public static EdfSignalSource open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            EdfSignalHeader header = EdfSignalHeader.read(channel);
+            return new EdfSignalSource(channel, header, completeRecords(header, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the number of complete data records in a file of the given size, which is lower than declared
+     * in the header if the file is truncated, and is the only source if the header declares {@code -1}.
+     *
+     * @param header   The header of the file.
+     * @param fileSize The size of the file.
+     * @return The number of complete data records.
+     */
+    static int completeRecords(EdfSignalHeader header, long fileSize) {
+        if (header.recordSize() == 0) {
+            return 0;
+        }
+        long present = Math.max(0, fileSize - header.size()) / header.recordSize();
+        return (int) (header.records() < 0 ? present : Math.min(header.records(), present));
+    }
+
+    @Override
+    public EdfSignalHeader header() {
+        return header;
+    }
+
+    @Override
+    public int records() {
+        return records;
+    }
+
+    @Override
+    public void readDigital(int signal, long fromSample, short[] out) throws IOException {
+        int samplesPerRecord = header.signals().get(signal).samplesPerRecord();
+        long signalOffset = header.size() + header.offsetInRecord(signal);
+        ByteBuffer buffer = ByteBuffer.allocate(samplesPerRecord * EdfSampleDecoder.BYTES_PER_SAMPLE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+
+        int done = 0;
+        while (done < out.length) {
+            long sample = fromSample + done;
+            long record = sample / samplesPerRecord;
+            int inRecord = (int) (sample % samplesPerRecord);
+            int count = Math.min(samplesPerRecord - inRecord, out.length - done);
+
+            buffer.clear().limit(count * EdfSampleDecoder.BYTES_PER_SAMPLE);
+            long position = signalOffset + record * header.recordSize() + (long) inRecord * EdfSampleDecoder.BYTES_PER_SAMPLE;
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new EOFException("EDF file ends within data record " + record);
+                }
+            }
+            buffer.flip();
+            buffer.asShortBuffer().get(out, done, count);
+            done += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
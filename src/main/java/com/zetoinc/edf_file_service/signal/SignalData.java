@@ -0,0 +1,13 @@
+package com.zetoinc.edf_file_service.signal;
+
+/**
+ * Physical samples of one signal of a recording over a time range.
+ *
+ * @param channel      The index of the signal.
+ * @param label        The label of the signal, e.g. {@code EEG Fp1}.
+ * @param sampleRate   The sample rate in Hz.
+ * @param startSeconds The time of the first sample, in seconds from the start of the recording.
+ * @param samples      The physical values.
+ */
+public record SignalData(int channel, String label, double sampleRate, double startSeconds, double[] samples) {
+}
@@ -0,0 +1,27 @@
+package com.zetoinc.edf_file_service.signal;
+
+import java.util.Optional;
+
+/**
+ * Service interface for reading the signal data of stored recordings.
+ * <p>
+ * Reads are served from the columnar copy of a recording if one has been written, and from the EDF file
+ * otherwise; callers get the same samples either way.
+ * </p>
+ */
+public interface SignalService {
+
+    /**
+     * Reads the physical samples of one signal over a time range.
+     *
+     * @param metadataId   The ID of the recording's metadata.
+     * @param channel      The index of the signal.
+     * @param startSeconds The start of the range in seconds from the start of the recording.
+     * @param endSeconds   The end of the range, exclusive, or {@code null} for the end of the recording.
+     * @return The samples, or an empty optional if there is no metadata with this ID.
+     * @throws IllegalArgumentException If the channel or the range is invalid or the range is too long.
+     * @throws com.zetoinc.edf_file_service.exception.SignalNotAvailableException If the EDF file is not stored locally.
+     * @throws com.zetoinc.edf_file_service.exception.FileProcessingException If the stored file cannot be read.
+     */
+    Optional<SignalData> readSignal(Long metadataId, int channel, double startSeconds, Double endSeconds);
+}
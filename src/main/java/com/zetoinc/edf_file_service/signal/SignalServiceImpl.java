@@ -0,0 +1,150 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.SignalNotAvailableException;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics.Stage;
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import com.zetoinc.edf_file_service.service.EdfSignalHeader;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Implementation of {@link SignalService} for recordings stored on the local filesystem.
+ * <p>
+ * Only files below the storage directory or a watched directory are read. A descriptor request may store
+ * any {@code file:} URL as the source of its metadata, and such files must not become readable through
+ * the signal endpoint.
+ * </p>
+ */
+@Service
+public class SignalServiceImpl implements SignalService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalServiceImpl.class);
+
+    private final EdfFileService edfFileService;
+    private final ColumnarTranscodingService transcodingService;
+    private final EdfMetrics metrics;
+
+    @Value("${app.signal.max-samples:1000000}")
+    private int maxSamples;
+
+    @Value("${app.storage.directory}")
+    private String storageDirectory;
+
+    @Value("${app.watch.directories:}")
+    private String[] watchDirectories;
+
+    /**
+     * Constructs an instance of {@code SignalServiceImpl}.
+     *
+     * @param edfFileService     The service looking up stored metadata.
+     * @param transcodingService The service locating columnar copies of recordings.
+     * @param metrics            The metrics the reads are recorded in.
+     */
+    public SignalServiceImpl(EdfFileService edfFileService, ColumnarTranscodingService transcodingService, EdfMetrics metrics) {
+        this.edfFileService = edfFileService;
+        this.transcodingService = transcodingService;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Optional<SignalData> readSignal(Long metadataId, int channel, double startSeconds, Double endSeconds) {
+        Optional<EdfMetadata> metadata = edfFileService.findMetadata(metadataId);
+        if (metadata.isEmpty()) {
+            return Optional.empty();
+        }
+        Path edfFile = localFile(metadata.get());
+
+        Timer.Sample sample = Timer.start();
+        try (SignalSource source = open(metadataId, edfFile)) {
+            EdfSignalHeader header = source.header();
+            if (channel < 0 || channel >= header.signals().size()) {
+                throw new IllegalArgumentException("Channel must be between 0 and " + (header.signals().size() - 1) + ".");
+            }
+
+            EdfSignalHeader.Signal signal = header.signals().get(channel);
+            double sampleRate = header.sampleRate(channel);
+            long totalSamples = (long) source.records() * signal.samplesPerRecord();
+            long from = (long) Math.floor(startSeconds * sampleRate);
+            long to = endSeconds == null ? totalSamples : Math.min(totalSamples, (long) Math.ceil(endSeconds * sampleRate));
+            if (startSeconds < 0 || from >= to) {
+                throw new IllegalArgumentException("Invalid time range.");
+            }
+            if (to - from > maxSamples) {
+                throw new IllegalArgumentException("Requested range exceeds " + maxSamples + " samples.");
+            }
+
+            short[] digital = new short[(int) (to - from)];
+            source.readDigital(channel, from, digital);
+            double gain = signal.gain();
+            double offset = signal.offset();
+            double[] physical = new double[digital.length];
+            for (int i = 0; i < digital.length; i++) {
+                physical[i] = digital[i] * gain + offset;
+            }
+
+            sample.stop(metrics.timer(Stage.SIGNAL_READ));
+            metrics.recordSignalRead(source instanceof ColumnarSignalSource ? "columnar" : "edf", digital.length);
+            return Optional.of(new SignalData(channel, signal.label(), sampleRate, from / sampleRate, physical));
+        } catch (IOException e) {
+            logger.error("Error reading signal {} of EDF file: {}", channel, edfFile, e);
+            throw new FileProcessingException("Error reading EDF signal data.", e);
+        }
+    }
+
+    private SignalSource open(Long metadataId, Path edfFile) throws IOException {
+        Optional<Path> columnarFile = transcodingService.columnarFile(metadataId);
+        if (columnarFile.isPresent()) {
+            try {
+                return ColumnarSignalSource.open(columnarFile.get());
+            } catch (IOException e) {
+                logger.warn("Unreadable columnar copy, reading EDF file instead: {}", columnarFile.get(), e);
+            }
+        }
+        return EdfSignalSource.open(edfFile);
+    }
+
+    private Path localFile(EdfMetadata metadata) {
+        String sourceUri = metadata.getSourceUri();
+        if (sourceUri != null && sourceUri.startsWith("file:")) {
+            Optional<Path> path = realPath(Paths.get(URI.create(sourceUri)));
+            if (path.isPresent() && Files.isRegularFile(path.get()) && isStoredFile(path.get())) {
+                return path.get();
+            }
+        }
+        throw new SignalNotAvailableException("EDF signal data is not available.");
+    }
+
+    private boolean isStoredFile(Path path) {
+        Stream<String> watched = watchDirectories != null ? Arrays.stream(watchDirectories) : Stream.empty();
+        // Real paths on both sides, so that neither ".." nor a symbolic link leads out of a directory
+        return Stream.concat(Stream.of(storageDirectory), watched)
+                .filter(StringUtils::hasText)
+                .map(directory -> realPath(Paths.get(directory.trim())))
+                .flatMap(Optional::stream)
+                .anyMatch(path::startsWith);
+    }
+
+    private static Optional<Path> realPath(Path path) {
+        try {
+            return Optional.of(path.toRealPath());
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+}
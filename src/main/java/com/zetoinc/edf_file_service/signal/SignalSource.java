@@ -0,0 +1,36 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.service.EdfSignalHeader;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Read access to the digital samples of a stored recording, independent of how the recording is laid out on disk.
+ */
+public interface SignalSource extends Closeable {
+
+    /**
+     * Returns the EDF header of the recording.
+     *
+     * @return The header.
+     */
+    EdfSignalHeader header();
+
+    /**
+     * Returns the number of complete data records that can be read.
+     *
+     * @return The number of data records.
+     */
+    int records();
+
+    /**
+     * Reads consecutive digital samples of one signal.
+     *
+     * @param signal     The index of the signal.
+     * @param fromSample The index of the first sample, counted from the start of the recording.
+     * @param out        The array receiving the samples; its length is the number of samples read.
+     * @throws IOException If the samples cannot be read.
+     */
+    void readDigital(int signal, long fromSample, short[] out) throws IOException;
+}
@@ -0,0 +1,199 @@
+package com.zetoinc.edf_file_service.admission;
+
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.security.ApiKey;
+import com.zetoinc.edf_file_service.security.ApiKeyProperties;
+import com.zetoinc.edf_file_service.security.AuthService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlFilterTest {
+
+    private static final String KEY = "tenant-key";
+
+    @Mock
+    private AuthService authService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private ApiKeyProperties.Quota quota;
+
+    @BeforeEach
+    void setUp() {
+        quota = new ApiKeyProperties.Quota();
+    }
+
+    @Test
+    void testRateLimit_RejectsWith429AndRetryAfter() throws Exception {
+        // Arrange
+        quota.setRequestsPerSecond(0.5);
+        quota.setBurst(1);
+        givenKey();
+        AdmissionControlFilter filter = filter(0);
+
+        // Act
+        MockHttpServletResponse first = execute(filter, request(), new MockFilterChain());
+        MockHttpServletResponse second = execute(filter, request(), new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("2", second.getHeader("Retry-After"));
+        assertEquals("Too many requests.", second.getContentAsString());
+        assertEquals(1, meterRegistry.get("edf.admission.rejected").tag("client", "tenant").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void testConcurrencyCap_RejectsWhileRequestIsInFlight() throws Exception {
+        // Arrange
+        quota.setMaxConcurrentRequests(1);
+        givenKey();
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> nested[0] = execute(filter, request(), new MockFilterChain());
+
+        // Act
+        MockHttpServletResponse outer = execute(filter, request(), chain);
+        MockHttpServletResponse after = execute(filter, request(), new MockFilterChain());
+
+        // Assert
+        assertEquals(200, outer.getStatus());
+        assertEquals(429, nested[0].getStatus());
+        assertEquals(200, after.getStatus(), "Permit should be released after the request completed");
+    }
+
+    @Test
+    void testByteBudget_ChargesTransferredBytesAndRejectsUntilRefilled() throws Exception {
+        // Arrange
+        quota.setBytesPerMinute(6_000);
+        givenKey();
+        AdmissionControlFilter filter = filter(0);
+        FilterChain downloadingChain = (request, response) ->
+                ((AtomicLong) request.getAttribute(RequestByteCounter.ATTRIBUTE)).addAndGet(12_000);
+
+        // Act
+        MockHttpServletResponse first = execute(filter, request(), downloadingChain);
+        MockHttpServletResponse second = execute(filter, request(), new MockFilterChain());
+        now.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        MockHttpServletResponse third = execute(filter, request(), new MockFilterChain());
+
+        // Assert
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("61", second.getHeader("Retry-After"));
+        assertEquals(200, third.getStatus());
+    }
+
+    @Test
+    void testByteBudget_RejectsUploadLargerThanRemainingBudget() throws Exception {
+        // Arrange
+        quota.setBytesPerMinute(1_000);
+        givenKey();
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletRequest upload = request();
+        upload.setContent(new byte[800]);
+        FilterChain uploadingChain = (request, response) ->
+                ((AtomicLong) request.getAttribute(RequestByteCounter.ATTRIBUTE)).addAndGet(800);
+        MockHttpServletRequest tooLarge = request();
+        tooLarge.setContent(new byte[5_000]);
+        FilterChain chain = mock(FilterChain.class);
+
+        // Act
+        MockHttpServletResponse accepted = execute(filter, upload, uploadingChain);
+        MockHttpServletResponse rejected = execute(filter, tooLarge, chain);
+
+        // Assert
+        assertEquals(200, accepted.getStatus());
+        assertEquals(429, rejected.getStatus());
+        verify(chain, never()).doFilter(any(ServletRequest.class), any(ServletResponse.class));
+    }
+
+    @Test
+    void testGlobalLimit_ShedsWith503() throws Exception {
+        // Arrange
+        when(authService.resolveKey(any())).thenReturn(Optional.empty());
+        AdmissionControlFilter filter = filter(1);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        FilterChain chain = (request, response) -> nested[0] = execute(filter, request(), new MockFilterChain());
+
+        // Act
+        MockHttpServletResponse outer = execute(filter, request(), chain);
+
+        // Assert
+        assertEquals(200, outer.getStatus());
+        assertEquals(503, nested[0].getStatus());
+        assertEquals("1", nested[0].getHeader("Retry-After"));
+        assertEquals("Service is overloaded.", nested[0].getContentAsString());
+    }
+
+    @Test
+    void testUnknownKey_IsPassedToController() throws Exception {
+        // Arrange
+        when(authService.resolveKey("wrong key")).thenReturn(Optional.empty());
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/edf/descriptor");
+        request.setQueryString("key=wrong+key&fileUrl=x");
+        MockFilterChain chain = new MockFilterChain();
+
+        // Act
+        execute(filter, request, chain);
+
+        // Assert
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void testNonApiPath_IsNotFiltered() throws Exception {
+        // Arrange
+        AdmissionControlFilter filter = filter(0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/prometheus");
+
+        // Act
+        execute(filter, request, new MockFilterChain());
+
+        // Assert
+        verifyNoInteractions(authService);
+    }
+
+    private void givenKey() {
+        when(authService.resolveKey(KEY)).thenReturn(Optional.of(new ApiKey("tenant", new byte[0], quota)));
+    }
+
+    private AdmissionControlFilter filter(int maxConcurrentRequests) {
+        return new AdmissionControlFilter(authService, new EdfMetrics(meterRegistry), maxConcurrentRequests, now::get);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/edf/upload");
+        request.setQueryString("key=" + KEY);
+        return request;
+    }
+
+    private static MockHttpServletResponse execute(AdmissionControlFilter filter, MockHttpServletRequest request,
+                                                   FilterChain chain) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
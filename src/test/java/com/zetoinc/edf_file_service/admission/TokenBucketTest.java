@@ -0,0 +1,53 @@
+package com.zetoinc.edf_file_service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testTryConsume_RejectsWhenEmptyAndRefillsOverTime() {
+        // Given a bucket of 2 tokens refilling at 1 token per second
+        TokenBucket bucket = new TokenBucket(2, 1, now::get);
+
+        // When draining it
+        assertTrue(bucket.tryConsume(1));
+        assertTrue(bucket.tryConsume(1));
+
+        // Then it rejects until a token has been refilled
+        assertFalse(bucket.tryConsume(1));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), bucket.nanosUntilAvailable(1));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertTrue(bucket.tryConsume(1));
+    }
+
+    @Test
+    void testRefill_IsCappedAtCapacity() {
+        // Given a bucket idle for much longer than it takes to fill up
+        TokenBucket bucket = new TokenBucket(5, 10, now::get);
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        // Then it holds no more than its capacity
+        assertEquals(5, bucket.available(), 1e-9);
+    }
+
+    @Test
+    void testConsume_AllowsDebt() {
+        // Given a bucket of 100 tokens refilling at 100 tokens per second
+        TokenBucket bucket = new TokenBucket(100, 100, now::get);
+
+        // When charging more than is available
+        bucket.consume(300);
+
+        // Then the debt must be paid back before tokens are available again
+        assertEquals(-200, bucket.available(), 1e-9);
+        assertEquals(TimeUnit.SECONDS.toNanos(3), bucket.nanosUntilAvailable(100));
+        assertFalse(bucket.tryConsume(1));
+    }
+}
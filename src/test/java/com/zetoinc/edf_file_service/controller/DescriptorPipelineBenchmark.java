@@ -0,0 +1,80 @@
+package com.zetoinc.edf_file_service.controller;
+
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import com.zetoinc.edf_file_service.support.LocalOriginServer;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full {@code /api/edf/descriptor} path: HTTP request, download from a local origin server,
+ * header parsing, persistence in an embedded H2 database and response serialization.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DescriptorPipelineBenchmark {
+
+    @Param({"8", "64", "256"})
+    int channels;
+
+    @Param({"10", "300"})
+    int records;
+
+    private LocalOriginServer origin;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException {
+        origin = LocalOriginServer.start();
+        String fileUrl = origin.serve("recording.edf",
+                SyntheticEdfFile.builder().channels(channels).records(records).build().toBytes());
+
+        context = EmbeddedApplication.start(WebApplicationType.SERVLET);
+        client = HttpClient.newHttpClient();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + EmbeddedApplication.port(context)
+                + "/api/edf/descriptor?key=" + EmbeddedApplication.SECRET_KEY
+                + "&fileUrl=" + URLEncoder.encode(fileUrl, StandardCharsets.UTF_8))).GET().build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        origin.close();
+    }
+
+    @Benchmark
+    public String descriptor() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
@@ -1,10 +1,19 @@
 package com.zetoinc.edf_file_service.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.InvalidEdfFileException;
 import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.exception.OriginUnavailableException;
+import com.zetoinc.edf_file_service.exception.SignalNotAvailableException;
+import com.zetoinc.edf_file_service.ingest.IngestionJobService;
 import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.model.IngestionJob;
 import com.zetoinc.edf_file_service.security.AuthService;
 import com.zetoinc.edf_file_service.service.EdfFileService;
+import com.zetoinc.edf_file_service.signal.SignalData;
+import com.zetoinc.edf_file_service.signal.SignalService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,9 +21,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +43,12 @@ class EdfControllerTest {
     @Mock
     private EdfFileService edfFileService;
 
+    @Mock
+    private IngestionJobService ingestionJobService;
+
+    @Mock
+    private SignalService signalService;
+
     @InjectMocks
     private EdfController edfController;
 
@@ -50,7 +70,62 @@ class EdfControllerTest {
         when(authService.isValidKey(validKey)).thenReturn(true);
         when(edfFileService.processEdfFile(validUrl)).thenReturn(mockMetadata);
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(mockMetadata, response.getBody());
+    }
+
+    @Test
+    void testGetEdfDescriptor_Success_SetsETagAndCacheControl() throws IOException {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfFile(validUrl)).thenReturn(mockMetadata);
+        ReflectionTestUtils.setField(edfController, "cacheMaxAgeSeconds", 600L);
+
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertTrue(response.getHeaders().getETag().startsWith("W/\""));
+        assertEquals("max-age=600, private", response.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testGetEdfDescriptor_ETagIgnoresDatabaseId() throws IOException {
+        EdfMetadata reprocessed = new EdfMetadata(2L, "Sample EDF", "Patient-123", 31, 300.0, 5, "2025-02-12", mockMetadata.getChannelNames());
+        EdfMetadata otherPatient = new EdfMetadata(3L, "Sample EDF", "Patient-456", 31, 300.0, 5, "2025-02-12", mockMetadata.getChannelNames());
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfFile(validUrl)).thenReturn(mockMetadata, reprocessed, otherPatient);
+
+        String first = edfController.getEdfDescriptor(validKey, validUrl, null).getHeaders().getETag();
+        String second = edfController.getEdfDescriptor(validKey, validUrl, null).getHeaders().getETag();
+        String third = edfController.getEdfDescriptor(validKey, validUrl, null).getHeaders().getETag();
+
+        assertEquals(first, second);
+        assertNotEquals(first, third);
+    }
+
+    @Test
+    void testGetEdfDescriptor_MatchingIfNoneMatch_NotModifiedWithoutProcessing() throws IOException {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfFile(validUrl)).thenReturn(mockMetadata);
+        String etag = edfController.getEdfDescriptor(validKey, validUrl, null).getHeaders().getETag();
+        when(edfFileService.findStoredMetadata(validUrl)).thenReturn(Optional.of(mockMetadata));
+
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, "\"other\", " + etag);
+
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(edfFileService, times(1)).processEdfFile(validUrl);
+    }
+
+    @Test
+    void testGetEdfDescriptor_StaleIfNoneMatch_ReturnsDescriptor() throws IOException {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findStoredMetadata(validUrl)).thenReturn(Optional.of(mockMetadata));
+        when(edfFileService.processEdfFile(validUrl)).thenReturn(mockMetadata);
+
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, "W/\"stale\"");
 
         assertEquals(OK, response.getStatusCode());
         assertEquals(mockMetadata, response.getBody());
@@ -58,7 +133,7 @@ class EdfControllerTest {
 
     @Test
     void testGetEdfDescriptor_MissingKey() {
-        ResponseEntity<?> response = edfController.getEdfDescriptor("", validUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor("", validUrl, null);
 
         assertEquals(BAD_REQUEST, response.getStatusCode());
         assertEquals("Authentication key is missing.", response.getBody());
@@ -68,7 +143,7 @@ class EdfControllerTest {
     void testGetEdfDescriptor_InvalidKey() {
         when(authService.isValidKey(invalidKey)).thenReturn(false);
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(invalidKey, validUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor(invalidKey, validUrl, null);
 
         assertEquals(FORBIDDEN, response.getStatusCode());
         assertEquals("Invalid authentication key.", response.getBody());
@@ -78,7 +153,7 @@ class EdfControllerTest {
     void testGetEdfDescriptor_MissingFileUrl() {
         when(authService.isValidKey(validKey)).thenReturn(true);
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, "");
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, "", null);
 
         assertEquals(BAD_REQUEST, response.getStatusCode());
         assertEquals("File URL is required.", response.getBody());
@@ -89,7 +164,7 @@ class EdfControllerTest {
         when(authService.isValidKey(validKey)).thenReturn(true);
         when(edfFileService.processEdfFile(invalidUrl)).thenThrow(new InvalidFileURLException("Invalid EDF file URL."));
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, invalidUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, invalidUrl, null);
 
         assertEquals(BAD_REQUEST, response.getStatusCode());
         assertEquals("Invalid EDF file URL.", response.getBody());
@@ -100,20 +175,222 @@ class EdfControllerTest {
         when(authService.isValidKey(validKey)).thenReturn(true);
         when(edfFileService.processEdfFile(validUrl)).thenThrow(new FileProcessingException("Error processing EDF file.", new Exception()));
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, null);
 
         assertEquals(INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("Error processing EDF file.", response.getBody());
     }
 
+    @Test
+    void testGetEdfDescriptor_OriginUnavailable() throws IOException {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfFile(validUrl)).thenThrow(new OriginUnavailableException("EDF file origin is unavailable: example.com", 12));
+
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, null);
+
+        assertEquals(SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("12", response.getHeaders().getFirst("Retry-After"));
+        assertEquals("EDF file origin is unavailable.", response.getBody());
+    }
+
     @Test
     void testGetEdfDescriptor_UnexpectedException() throws IOException {
         when(authService.isValidKey(validKey)).thenReturn(true);
         when(edfFileService.processEdfFile(validUrl)).thenThrow(new RuntimeException("Unexpected error"));
 
-        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl);
+        ResponseEntity<?> response = edfController.getEdfDescriptor(validKey, validUrl, null);
 
         assertEquals(INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertEquals("An unexpected error occurred.", response.getBody());
     }
+
+    @Test
+    void testGetEdfMetadata_Found() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(mockMetadata));
+
+        ResponseEntity<?> response = edfController.getEdfMetadata(validKey, 1L, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(mockMetadata, response.getBody());
+        assertNotNull(response.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetEdfMetadata_NotFound() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(42L)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = edfController.getEdfMetadata(validKey, 42L, null);
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("EDF metadata not found.", response.getBody());
+    }
+
+    @Test
+    void testGetEdfMetadataByPatient_Success() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadataByPatient("Patient-123")).thenReturn(List.of(mockMetadata));
+
+        ResponseEntity<?> response = edfController.getEdfMetadataByPatient(validKey, "Patient-123", null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(List.of(mockMetadata), response.getBody());
+    }
+
+    @Test
+    void testGetEdfMetadataByPatient_MissingPatientId() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+
+        ResponseEntity<?> response = edfController.getEdfMetadataByPatient(validKey, " ", null);
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        assertEquals("Patient ID is required.", response.getBody());
+        verifyNoInteractions(edfFileService);
+    }
+
+    @Test
+    void testGetEdfSignal_Success() {
+        SignalData signal = new SignalData(2, "EEG F7", 256.0, 1.0, new double[]{1.5, -2.5});
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(mockMetadata));
+        when(signalService.readSignal(1L, 2, 1.0, 2.0)).thenReturn(Optional.of(signal));
+
+        ResponseEntity<?> response = edfController.getEdfSignal(validKey, 1L, 2, 1.0, 2.0, null);
+
+        assertEquals(OK, response.getStatusCode());
+        assertEquals(signal, response.getBody());
+        assertNotNull(response.getHeaders().getCacheControl());
+        assertTrue(response.getHeaders().getETag().startsWith("W/\""));
+    }
+
+    @Test
+    void testGetEdfSignal_MatchingIfNoneMatch_NotModifiedWithoutReading() {
+        SignalData signal = new SignalData(2, "EEG F7", 256.0, 1.0, new double[]{1.5, -2.5});
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(mockMetadata));
+        when(signalService.readSignal(1L, 2, 1.0, 2.0)).thenReturn(Optional.of(signal));
+        String etag = edfController.getEdfSignal(validKey, 1L, 2, 1.0, 2.0, null).getHeaders().getETag();
+
+        ResponseEntity<?> response = edfController.getEdfSignal(validKey, 1L, 2, 1.0, 2.0, etag);
+        ResponseEntity<?> otherRange = edfController.getEdfSignal(validKey, 1L, 2, 1.0, 3.0, etag);
+
+        assertEquals(NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(signalService, times(1)).readSignal(1L, 2, 1.0, 2.0);
+        assertNotEquals(etag, otherRange.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetEdfSignal_NotFound() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(42L)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = edfController.getEdfSignal(validKey, 42L, 0, 0.0, null, null);
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("EDF metadata not found.", response.getBody());
+        verifyNoInteractions(signalService);
+    }
+
+    @Test
+    void testGetEdfSignal_InvalidChannel() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(mockMetadata));
+        when(signalService.readSignal(1L, 9, 0.0, null)).thenThrow(new IllegalArgumentException("Channel must be between 0 and 4."));
+
+        ResponseEntity<?> response = edfController.getEdfSignal(validKey, 1L, 9, 0.0, null, null);
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        assertEquals("Channel must be between 0 and 4.", response.getBody());
+    }
+
+    @Test
+    void testGetEdfSignal_SignalNotAvailable() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(mockMetadata));
+        when(signalService.readSignal(1L, 0, 0.0, null)).thenThrow(new SignalNotAvailableException("EDF signal data is not available."));
+
+        ResponseEntity<?> response = edfController.getEdfSignal(validKey, 1L, 0, 0.0, null, null);
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("EDF signal data is not available.", response.getBody());
+    }
+
+    @Test
+    void testUploadEdfFile_Success() {
+        InputStream body = new ByteArrayInputStream(new byte[512]);
+        mockMetadata.setSourceUri("file:///var/lib/edf/uploads/upload.edf");
+        mockMetadata.setSourceSize(512L);
+        mockMetadata.setSourceLastModified(1L);
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfUpload(body)).thenReturn(mockMetadata);
+
+        ResponseEntity<?> response = edfController.uploadEdfFile(validKey, body);
+
+        assertEquals(CREATED, response.getStatusCode());
+        assertEquals(mockMetadata, response.getBody());
+        JsonNode json = new ObjectMapper().valueToTree(response.getBody());
+        assertEquals(1L, json.get("id").asLong());
+        assertFalse(json.has("sourceUri"), "The storage path must not be part of the response");
+        assertFalse(json.has("sourceSize"));
+        assertFalse(json.has("sourceLastModified"));
+    }
+
+    @Test
+    void testUploadEdfFile_InvalidKey() {
+        when(authService.isValidKey(invalidKey)).thenReturn(false);
+
+        ResponseEntity<?> response = edfController.uploadEdfFile(invalidKey, new ByteArrayInputStream(new byte[0]));
+
+        assertEquals(FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(edfFileService);
+    }
+
+    @Test
+    void testUploadEdfFile_InvalidEdfFileException() {
+        InputStream body = new ByteArrayInputStream(new byte[10]);
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(edfFileService.processEdfUpload(body)).thenThrow(new InvalidEdfFileException("Uploaded content is not a complete EDF file.", new Exception()));
+
+        ResponseEntity<?> response = edfController.uploadEdfFile(validKey, body);
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        assertEquals("Uploaded content is not a complete EDF file.", response.getBody());
+    }
+
+    @Test
+    void testSubmitIngestionJobs_Success() {
+        List<IngestionJob> jobs = List.of(new IngestionJob(validUrl, Instant.now()));
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(ingestionJobService.submit(List.of(validUrl))).thenReturn(jobs);
+
+        ResponseEntity<?> response = edfController.submitIngestionJobs(validKey, List.of(validUrl));
+
+        assertEquals(ACCEPTED, response.getStatusCode());
+        assertEquals(jobs, response.getBody());
+    }
+
+    @Test
+    void testSubmitIngestionJobs_MissingUrls() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+
+        ResponseEntity<?> response = edfController.submitIngestionJobs(validKey, List.of(validUrl, " "));
+
+        assertEquals(BAD_REQUEST, response.getStatusCode());
+        assertEquals("File URLs are required.", response.getBody());
+        verifyNoInteractions(ingestionJobService);
+    }
+
+    @Test
+    void testGetIngestionJob_NotFound() {
+        when(authService.isValidKey(validKey)).thenReturn(true);
+        when(ingestionJobService.findJob(7L)).thenReturn(Optional.empty());
+
+        ResponseEntity<?> response = edfController.getIngestionJob(validKey, 7L);
+
+        assertEquals(NOT_FOUND, response.getStatusCode());
+        assertEquals("Ingestion job not found.", response.getBody());
+    }
 }
@@ -0,0 +1,99 @@
+package com.zetoinc.edf_file_service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies over HTTP which recordings {@code /api/edf/metadata/{id}/signal} serves, against the embedded application.
+ */
+class SignalEndpointTest {
+
+    @TempDir
+    static Path tempDir;
+
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void startApplication() {
+        context = EmbeddedApplication.start(WebApplicationType.SERVLET,
+                "app.storage.directory=" + tempDir.resolve("storage"), "app.jobs.enabled=false");
+        baseUrl = "http://localhost:" + EmbeddedApplication.port(context) + "/api/edf";
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @Test
+    void testGetSignal_DescriptorOfLocalFile_NotFound() throws Exception {
+        // Arrange: metadata of a file outside the storage directory, created through the descriptor endpoint
+        Path file = SyntheticEdfFile.builder().channels(2).records(4).build().writeTo(tempDir.resolve("outside.edf"));
+        HttpResponse<String> descriptor = send(HttpRequest.newBuilder(URI.create(baseUrl + "/descriptor?key=" + key()
+                + "&fileUrl=" + URLEncoder.encode(file.toUri().toString(), StandardCharsets.UTF_8))).GET());
+        assertEquals(200, descriptor.statusCode());
+
+        // Act
+        HttpResponse<String> signal = send(signalRequest(id(descriptor)));
+
+        // Assert
+        assertEquals(404, signal.statusCode());
+        assertEquals("EDF signal data is not available.", signal.body());
+    }
+
+    @Test
+    void testGetSignal_Upload_ReturnsSamples() throws Exception {
+        // Arrange
+        byte[] content = SyntheticEdfFile.builder().channels(2).records(4).build().toBytes();
+        HttpResponse<String> upload = send(HttpRequest.newBuilder(URI.create(baseUrl + "/upload?key=" + key()))
+                .header("Content-Type", "application/octet-stream")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(content)));
+        assertEquals(201, upload.statusCode());
+
+        // Act
+        HttpResponse<String> signal = send(signalRequest(id(upload)));
+
+        // Assert
+        assertEquals(200, signal.statusCode());
+        assertEquals(0, objectMapper.readTree(signal.body()).get("channel").asInt());
+    }
+
+    private HttpRequest.Builder signalRequest(long id) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/metadata/" + id + "/signal?key=" + key() + "&channel=0&end=1")).GET();
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private long id(HttpResponse<String> response) throws IOException {
+        return objectMapper.readTree(response.body()).get("id").asLong();
+    }
+
+    private static String key() {
+        return URLEncoder.encode(EmbeddedApplication.SECRET_KEY, StandardCharsets.UTF_8);
+    }
+}
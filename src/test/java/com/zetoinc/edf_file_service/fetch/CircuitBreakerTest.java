@@ -0,0 +1,87 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, TimeUnit.SECONDS.toNanos(10), now::get);
+
+    @Test
+    void testOpensAfterConsecutiveFailures() {
+        // Given two failures, interrupted by a success, and three consecutive ones
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onFailure();
+
+        // Then the circuit is open until the open duration has passed
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.state());
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), circuitBreaker.nanosUntilRetry());
+    }
+
+    @Test
+    void testHalfOpen_LetsSingleTrialThrough() {
+        // Given an open circuit whose open duration has passed
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+        // When a trial request is let through
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // Then further requests wait for its outcome, and a success closes the circuit
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+        assertTrue(circuitBreaker.tryAcquire());
+    }
+
+    @Test
+    void testHalfOpen_FailedTrialReopens() {
+        // Given a trial request after the open duration
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // When it fails
+        circuitBreaker.onFailure();
+
+        // Then the circuit opens for another period
+        assertFalse(circuitBreaker.tryAcquire());
+        assertEquals(TimeUnit.SECONDS.toNanos(10), circuitBreaker.nanosUntilRetry());
+    }
+
+    @Test
+    void testHalfOpen_UnreportedTrialExpires() {
+        // Given a trial request whose outcome is never reported
+        openCircuit();
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertTrue(circuitBreaker.tryAcquire());
+
+        // When another open duration has passed
+        now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertFalse(circuitBreaker.tryAcquire());
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Then the next trial is let through
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.state());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.zetoinc.edf_file_service.fetch;
+
+import com.zetoinc.edf_file_service.exception.OriginUnavailableException;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.service.EdfHeaderParser;
+import com.zetoinc.edf_file_service.support.LocalOriginServer;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests {@link FetchServiceImpl} against a {@link LocalOriginServer}.
+ */
+class FetchServiceImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FetchProperties properties = new FetchProperties();
+    private LocalOriginServer origin;
+    private FetchServiceImpl fetchService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        origin = LocalOriginServer.start();
+        properties.getDefaults().setBackoffBase(Duration.ofMillis(1));
+        properties.getDefaults().setBackoffMax(Duration.ofMillis(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (fetchService != null) {
+            fetchService.close();
+        }
+        origin.close();
+    }
+
+    @Test
+    void testFetchHeader_RequestsOnlyTheHeaderRange() throws IOException {
+        // Arrange
+        byte[] content = SyntheticEdfFile.builder().channels(8).records(60).build().toBytes();
+        URL url = new URL(origin.serve("recording.edf", content));
+
+        // Act
+        RemoteHeader header = service().fetchHeader(url);
+
+        // Assert
+        assertArrayEquals(Arrays.copyOf(content, EdfHeaderParser.headerLength(8)), header.header());
+        assertEquals(1, origin.requests());
+        assertTrue(header.bytesFetched() <= EdfHeaderParser.headerLength(256), "Expected only the prefetch range to be transferred");
+        assertTrue(header.bytesFetched() < content.length / 10);
+    }
+
+    @Test
+    void testFetchHeader_ManyChannels_FetchesRemainingLabelsWithSecondRange() throws IOException {
+        // Arrange
+        byte[] content = SyntheticEdfFile.builder().channels(300).samplesPerRecord(16).records(2).build().toBytes();
+        URL url = new URL(origin.serve("recording.edf", content));
+
+        // Act
+        RemoteHeader header = service().fetchHeader(url);
+
+        // Assert
+        assertArrayEquals(Arrays.copyOf(content, EdfHeaderParser.headerLength(300)), header.header());
+        assertEquals(2, origin.requests());
+        assertEquals(EdfHeaderParser.headerLength(300), header.bytesFetched());
+    }
+
+    @Test
+    void testFetchHeader_TransientFailures_AreRetried() throws IOException {
+        // Arrange
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()));
+        origin.failNext(2, 503);
+
+        // Act
+        RemoteHeader header = service().fetchHeader(url);
+
+        // Assert
+        assertEquals(8, EdfHeaderParser.channelCount(header.header()));
+        assertEquals(3, origin.requests());
+        assertEquals(2, meterRegistry.get("edf.fetch.retries").counter().count());
+    }
+
+    @Test
+    void testFetchHeader_NotFound_IsNotRetried() throws IOException {
+        // Arrange
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()) + ".missing");
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> service().fetchHeader(url));
+        assertEquals(1, origin.requests());
+    }
+
+    @Test
+    void testFetchHeader_ReadTimeout_FailsInsteadOfHanging() throws IOException {
+        // Arrange
+        properties.getDefaults().setReadTimeout(Duration.ofMillis(200));
+        properties.getDefaults().setMaxAttempts(1);
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()));
+        origin.stallNext(1, Duration.ofSeconds(3));
+        FetchServiceImpl service = service();
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(SocketTimeoutException.class, () -> service.fetchHeader(url));
+
+        // Assert
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000, "Expected the read timeout to apply");
+    }
+
+    @Test
+    void testFetchHeader_RepeatedFailures_OpenCircuit() throws IOException {
+        // Arrange
+        properties.getDefaults().setMaxAttempts(1);
+        properties.getDefaults().setFailureThreshold(2);
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()));
+        origin.failNext(100, 500);
+        FetchServiceImpl service = service();
+        assertThrows(IOException.class, () -> service.fetchHeader(url));
+        assertThrows(IOException.class, () -> service.fetchHeader(url));
+
+        // Act
+        OriginUnavailableException e = assertThrows(OriginUnavailableException.class, () -> service.fetchHeader(url));
+
+        // Assert
+        assertEquals(2, origin.requests(), "Expected the open circuit to fail fast without a request");
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, meterRegistry.get("edf.fetch.short.circuited").counter().count());
+    }
+
+    @Test
+    void testFetchHeader_SlowRequest_IsHedged() throws IOException {
+        // Arrange: a minimum hedge delay well above the warmup latencies, so that only the stalled request is hedged
+        properties.getDefaults().setHedgeMinDelay(Duration.ofMillis(500));
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()));
+        FetchServiceImpl service = service();
+        for (int i = 0; i < 25; i++) {
+            service.fetchHeader(url);
+        }
+        origin.stallNext(1, Duration.ofSeconds(3));
+
+        // Act
+        long start = System.nanoTime();
+        RemoteHeader header = service.fetchHeader(url);
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert
+        assertEquals(8, EdfHeaderParser.channelCount(header.header()));
+        assertTrue(elapsedMillis < 2000, "Expected the hedged request to answer first, took " + elapsedMillis + " ms");
+        assertEquals(1, meterRegistry.get("edf.fetch.hedges").tag("result", "sent").counter().count());
+        assertEquals(1, meterRegistry.get("edf.fetch.hedges").tag("result", "won").counter().count());
+    }
+
+    @Test
+    void testFetchHeader_HedgeThreadsBusy_SkipsHedge() throws Exception {
+        // Arrange: a single hedge thread, and two slow fetches at the same time
+        properties.setMaxConcurrentHedges(1);
+        properties.getDefaults().setHedgeMinDelay(Duration.ofMillis(300));
+        URL url = new URL(origin.serve("recording.edf", SyntheticEdfFile.builder().build().toBytes()));
+        FetchServiceImpl service = service();
+        for (int i = 0; i < 25; i++) {
+            service.fetchHeader(url);
+        }
+        origin.stallNext(3, Duration.ofSeconds(1));
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            List<Future<RemoteHeader>> headers = callers.invokeAll(List.of(() -> service.fetchHeader(url), () -> service.fetchHeader(url)));
+
+            // Assert
+            for (Future<RemoteHeader> header : headers) {
+                assertEquals(8, EdfHeaderParser.channelCount(header.get().header()));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(1, meterRegistry.get("edf.fetch.hedges").tag("result", "sent").counter().count());
+        assertEquals(25 + 3, origin.requests());
+    }
+
+    private FetchServiceImpl service() {
+        fetchService = new FetchServiceImpl(properties, new EdfMetrics(meterRegistry));
+        return fetchService;
+    }
+}
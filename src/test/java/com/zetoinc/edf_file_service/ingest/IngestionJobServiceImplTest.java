@@ -0,0 +1,273 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.model.IngestionJob;
+import com.zetoinc.edf_file_service.repository.IngestionJobRepository;
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of {@link IngestionJobServiceImpl} against an embedded H2 database, which supports
+ * {@code FOR UPDATE SKIP LOCKED} like MySQL 8. Instances are simulated by service objects with
+ * different owner IDs sharing the database.
+ */
+class IngestionJobServiceImplTest {
+
+    private static final Duration LEASE = Duration.ofSeconds(30);
+    private static final Duration BACKOFF = Duration.ofSeconds(10);
+
+    private static ConfigurableApplicationContext context;
+    private static IngestionJobRepository repository;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private IngestionJobServiceImpl jobService;
+
+    @BeforeAll
+    static void startApplication() {
+        context = EmbeddedApplication.start(WebApplicationType.NONE, "app.jobs.enabled=false");
+        repository = context.getBean(IngestionJobRepository.class);
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        jobService = new IngestionJobServiceImpl(repository, context.getBean(PlatformTransactionManager.class),
+                context.getBean(EdfMetrics.class), LEASE, 3, BACKOFF, clock);
+    }
+
+    @Test
+    void testClaim_LeasesPendingJobsOnce() {
+        // Arrange
+        List<IngestionJob> submitted = jobService.submit(List.of("https://example.com/a.edf", "https://example.com/b.edf"));
+
+        // Act
+        List<IngestionJob> claimed = jobService.claim("node-a", 10);
+        List<IngestionJob> claimedAgain = jobService.claim("node-b", 10);
+
+        // Assert
+        assertEquals(2, claimed.size());
+        assertTrue(claimedAgain.isEmpty());
+        IngestionJob stored = repository.findById(submitted.get(0).getId()).orElseThrow();
+        assertEquals(IngestionJob.Status.RUNNING, stored.getStatus());
+        assertEquals("node-a", stored.getLeaseOwner());
+        assertEquals(clock.instant().plus(LEASE), stored.getLeaseExpiresAt());
+        assertEquals(1, stored.getAttempts());
+    }
+
+    @Test
+    void testClaim_ConcurrentInstancesNeverClaimTheSameJob() throws Exception {
+        // Arrange
+        int jobs = 200;
+        jobService.submit(IntStream.range(0, jobs).mapToObj(i -> "https://example.com/" + i + ".edf").toList());
+        int instances = 8;
+        ConcurrentLinkedQueue<Long> claimedIds = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(instances);
+
+        // Act
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < instances; i++) {
+            String owner = "node-" + i;
+            Callable<Integer> worker = () -> {
+                start.await();
+                int claimedByOwner = 0;
+                List<IngestionJob> batch;
+                while (!(batch = jobService.claim(owner, 5)).isEmpty()) {
+                    batch.forEach(job -> claimedIds.add(job.getId()));
+                    claimedByOwner += batch.size();
+                }
+                return claimedByOwner;
+            };
+            results.add(executor.submit(worker));
+        }
+        start.countDown();
+        int total = 0;
+        for (Future<Integer> result : results) {
+            total += result.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(jobs, total);
+        Set<Long> unique = new HashSet<>(claimedIds);
+        assertEquals(jobs, unique.size(), "Every job must be claimed exactly once");
+        assertEquals(jobs, repository.countByStatus(IngestionJob.Status.RUNNING));
+    }
+
+    @Test
+    void testRelease_ReturnsJobWithoutCountingTheAttempt() {
+        // Arrange
+        Long id = jobService.submit(List.of("https://example.com/a.edf")).get(0).getId();
+        jobService.claim("node-a", 1);
+
+        // Act
+        boolean releasedByOther = jobService.release(id, "node-b");
+        boolean released = jobService.release(id, "node-a");
+        List<IngestionJob> reclaimed = jobService.claim("node-b", 1);
+
+        // Assert
+        assertFalse(releasedByOther);
+        assertTrue(released);
+        assertEquals(1, reclaimed.size());
+        assertEquals(1, reclaimed.get(0).getAttempts());
+    }
+
+    @Test
+    void testClaim_RecoversJobsOfCrashedInstance() {
+        // Arrange
+        Long id = jobService.submit(List.of("https://example.com/a.edf")).get(0).getId();
+        jobService.claim("crashed-node", 1);
+        clock.advance(LEASE.plusSeconds(1));
+
+        // Act
+        List<IngestionJob> reclaimed = jobService.claim("node-b", 1);
+        boolean lateOutcomeRecorded = jobService.complete(id, "crashed-node", 42L);
+
+        // Assert
+        assertEquals(1, reclaimed.size());
+        assertEquals(2, reclaimed.get(0).getAttempts());
+        assertFalse(lateOutcomeRecorded, "The former owner must not overwrite the new lease");
+        assertTrue(jobService.complete(id, "node-b", 43L));
+        IngestionJob stored = repository.findById(id).orElseThrow();
+        assertEquals(IngestionJob.Status.SUCCEEDED, stored.getStatus());
+        assertEquals(43L, stored.getMetadataId());
+        assertNull(stored.getLeaseOwner());
+    }
+
+    @Test
+    void testRenewLeases_KeepsJobWithItsOwner() {
+        // Arrange
+        Long id = jobService.submit(List.of("https://example.com/a.edf")).get(0).getId();
+        jobService.claim("node-a", 1);
+        clock.advance(LEASE.minusSeconds(5));
+
+        // Act
+        int renewed = jobService.renewLeases("node-a", List.of(id));
+        clock.advance(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(1, renewed);
+        assertTrue(jobService.claim("node-b", 1).isEmpty());
+        assertEquals(0, jobService.renewLeases("node-b", List.of(id)));
+    }
+
+    @Test
+    void testFail_RetriesWithBackoffThenGivesUp() {
+        // Arrange
+        Long id = jobService.submit(List.of("https://example.com/a.edf")).get(0).getId();
+
+        // Act & Assert: the first failure is retried after the backoff
+        jobService.claim("node-a", 1);
+        assertTrue(jobService.fail(id, "node-a", "Connection reset", true));
+        IngestionJob retried = repository.findById(id).orElseThrow();
+        assertEquals(IngestionJob.Status.PENDING, retried.getStatus());
+        assertEquals("Connection reset", retried.getLastError());
+        assertTrue(jobService.claim("node-a", 1).isEmpty());
+
+        // The second failure doubles the backoff
+        clock.advance(BACKOFF);
+        assertEquals(1, jobService.claim("node-a", 1).size());
+        assertTrue(jobService.fail(id, "node-a", "Connection reset", true));
+        assertEquals(clock.instant().plus(BACKOFF.multipliedBy(2)), repository.findById(id).orElseThrow().getAvailableAt());
+
+        // The last attempt fails the job for good
+        clock.advance(BACKOFF.multipliedBy(2));
+        assertEquals(1, jobService.claim("node-a", 1).size());
+        assertTrue(jobService.fail(id, "node-a", "Connection reset", true));
+        assertEquals(IngestionJob.Status.FAILED, repository.findById(id).orElseThrow().getStatus());
+        clock.advance(Duration.ofHours(1));
+        assertTrue(jobService.claim("node-a", 1).isEmpty());
+    }
+
+    @Test
+    void testFail_NotRetryableFailsRightAway() {
+        // Arrange
+        Long id = jobService.submit(List.of("ftp://example.com/a.edf")).get(0).getId();
+        jobService.claim("node-a", 1);
+
+        // Act
+        jobService.fail(id, "node-a", "Invalid EDF file URL.", false);
+
+        // Assert
+        assertEquals(IngestionJob.Status.FAILED, repository.findById(id).orElseThrow().getStatus());
+    }
+
+    @Test
+    void testClaim_FailsJobWhoseLeaseKeepsExpiring() {
+        // Arrange: a file that takes down every instance that ingests it
+        Long id = jobService.submit(List.of("https://example.com/poison.edf")).get(0).getId();
+        for (int attempt = 1; attempt <= 3; attempt++) {
+            assertEquals(1, jobService.claim("node-" + attempt, 1).size());
+            clock.advance(LEASE.plusSeconds(1));
+        }
+
+        // Act
+        List<IngestionJob> claimed = jobService.claim("node-4", 1);
+
+        // Assert
+        assertTrue(claimed.isEmpty());
+        IngestionJob stored = repository.findById(id).orElseThrow();
+        assertEquals(IngestionJob.Status.FAILED, stored.getStatus());
+        assertEquals(3, stored.getAttempts());
+    }
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static final class MutableClock extends Clock {
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
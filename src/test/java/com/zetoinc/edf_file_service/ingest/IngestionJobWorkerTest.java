@@ -0,0 +1,179 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.model.IngestionJob;
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link IngestionJobWorker}. The scheduler is started with a long poll interval,
+ * so polling and lease renewal are driven by the tests.
+ */
+@ExtendWith(MockitoExtension.class)
+class IngestionJobWorkerTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+    private static final String INSTANCE = "node-a";
+
+    @Mock
+    private IngestionJobService jobService;
+
+    @Mock
+    private EdfFileService edfFileService;
+
+    @InjectMocks
+    private IngestionJobWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "instanceId", INSTANCE);
+        ReflectionTestUtils.setField(worker, "workerThreads", 2);
+        ReflectionTestUtils.setField(worker, "pollInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(worker, "leaseDuration", Duration.ofHours(1));
+        worker.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.stop();
+    }
+
+    @Test
+    void testPoll_IngestsClaimedJobsAndCompletesThem() throws IOException {
+        // Given two due jobs
+        when(jobService.claim(INSTANCE, 2)).thenReturn(List.of(job(1L, "https://example.com/a.edf"), job(2L, "https://example.com/b.edf")));
+        when(edfFileService.processEdfFile(anyString())).thenAnswer(invocation -> metadata(10L));
+
+        // When polling
+        worker.poll();
+
+        // Then both are ingested and reported
+        verify(jobService, timeout(TIMEOUT_MS)).complete(1L, INSTANCE, 10L);
+        verify(jobService, timeout(TIMEOUT_MS)).complete(2L, INSTANCE, 10L);
+    }
+
+    @Test
+    void testPoll_ReportsFailuresWithRetryability() throws IOException {
+        // Given a job with an invalid URL and one whose origin fails
+        when(jobService.claim(INSTANCE, 2)).thenReturn(List.of(job(1L, "invalid-url"), job(2L, "https://example.com/b.edf")));
+        when(edfFileService.processEdfFile("invalid-url")).thenThrow(new InvalidFileURLException("Invalid EDF file URL."));
+        when(edfFileService.processEdfFile("https://example.com/b.edf"))
+                .thenThrow(new FileProcessingException("Error processing EDF file", new IOException("Connection reset")));
+
+        // When polling
+        worker.poll();
+
+        // Then only the origin failure is retried
+        verify(jobService, timeout(TIMEOUT_MS)).fail(1L, INSTANCE, "Invalid EDF file URL.", false);
+        verify(jobService, timeout(TIMEOUT_MS)).fail(2L, INSTANCE, "Error processing EDF file", true);
+    }
+
+    @Test
+    void testPoll_ClaimsOnlyForIdleThreadsAndRenewsLeases() throws Exception {
+        // Given a job that blocks one worker thread
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobService.claim(INSTANCE, 2)).thenReturn(List.of(job(1L, "https://example.com/a.edf")));
+        when(edfFileService.processEdfFile(anyString())).thenAnswer(invocation -> {
+            release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return metadata(10L);
+        });
+        worker.poll();
+
+        // When polling and renewing while it runs
+        worker.poll();
+        worker.renewLeases();
+
+        // Then only the idle thread is offered work and the running job keeps its lease
+        verify(jobService).claim(INSTANCE, 1);
+        verify(jobService).renewLeases(INSTANCE, List.of(1L));
+        release.countDown();
+        verify(jobService, timeout(TIMEOUT_MS)).complete(1L, INSTANCE, 10L);
+    }
+
+    @Test
+    void testPoll_AllThreadsBusy_ClaimsNothingUntilAJobFinishes() throws Exception {
+        // Given both worker threads blocked by running jobs
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobService.claim(INSTANCE, 2))
+                .thenReturn(List.of(job(1L, "https://example.com/a.edf"), job(2L, "https://example.com/b.edf")))
+                .thenReturn(List.of());
+        when(edfFileService.processEdfFile(anyString())).thenAnswer(invocation -> {
+            release.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            return metadata(10L);
+        });
+        worker.poll();
+
+        // When polling while they run
+        worker.poll();
+
+        // Then nothing is claimed, and both threads are offered work again once the jobs finished
+        verify(jobService, never()).claim(eq(INSTANCE), intThat(limit -> limit != 2));
+        release.countDown();
+        verify(jobService, timeout(TIMEOUT_MS)).complete(2L, INSTANCE, 10L);
+        Semaphore idleWorkers = (Semaphore) ReflectionTestUtils.getField(worker, "idleWorkers");
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (idleWorkers.availablePermits() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        worker.poll();
+        verify(jobService, times(2)).claim(INSTANCE, 2);
+    }
+
+    @Test
+    void testPoll_WorkersShutDownDuringClaim_ReleasesJobsAndKeepsPolling() {
+        // Given workers that shut down while jobs are being claimed
+        when(jobService.claim(INSTANCE, 2)).thenAnswer(invocation -> {
+            ((ThreadPoolExecutor) ReflectionTestUtils.getField(worker, "workers")).shutdown();
+            return List.of(job(1L, "https://example.com/a.edf"));
+        });
+
+        // When polling
+        worker.poll();
+        worker.renewLeases();
+
+        // Then the job is handed back and its lease is no longer renewed
+        verify(jobService).release(1L, INSTANCE);
+        verify(jobService, never()).renewLeases(anyString(), anyCollection());
+        verifyNoInteractions(edfFileService);
+    }
+
+    @Test
+    void testPoll_ClaimFails_DoesNotPropagate() {
+        when(jobService.claim(INSTANCE, 2)).thenThrow(new IllegalStateException("Database unavailable"));
+
+        assertDoesNotThrow(() -> worker.poll());
+    }
+
+    private static IngestionJob job(Long id, String sourceUri) {
+        IngestionJob job = new IngestionJob(sourceUri, Instant.now());
+        job.setId(id);
+        job.setStatus(IngestionJob.Status.RUNNING);
+        return job;
+    }
+
+    private static EdfMetadata metadata(Long id) {
+        return new EdfMetadata(id, "EDF File", "PATIENT-1", 1, 10.0, 0, "01.01.25", List.of("EEG Fp1"));
+    }
+}
@@ -0,0 +1,124 @@
+package com.zetoinc.edf_file_service.ingest;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link WatchFolderIngestionService}.
+ * Uses a real temporary directory, so events are delivered by the platform watch service.
+ */
+@ExtendWith(MockitoExtension.class)
+class WatchFolderIngestionServiceTest {
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    @Mock
+    private EdfFileService edfFileService;
+
+    @InjectMocks
+    private WatchFolderIngestionService watchService;
+
+    @TempDir
+    Path watchDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(watchService, "directories", new String[]{watchDir.toString()});
+        ReflectionTestUtils.setField(watchService, "debounceMillis", 200L);
+        ReflectionTestUtils.setField(watchService, "stableChecks", 1);
+        ReflectionTestUtils.setField(watchService, "workerThreads", 1);
+        ReflectionTestUtils.setField(watchService, "queueCapacity", 10);
+        watchService.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchService.stop();
+    }
+
+    @Test
+    void testNewEdfFile_IsIngestedOnce() throws IOException {
+        // Given a file written in several chunks
+        Path edfFile = watchDir.resolve("recording.edf");
+        try (OutputStream out = Files.newOutputStream(edfFile)) {
+            out.write(new byte[1024]);
+            out.flush();
+            out.write(new byte[1024]);
+        }
+
+        // Then it is handed to the service exactly once, after it settled
+        verify(edfFileService, timeout(TIMEOUT_MS)).processLocalEdfFile(edfFile);
+        verify(edfFileService, after(1000).times(1)).processLocalEdfFile(edfFile);
+        assertEquals(0, watchService.getPendingFileCount());
+    }
+
+    @Test
+    void testEdfFileInNewSubdirectory_IsIngested() throws IOException {
+        // Given a file created inside a directory that did not exist at startup
+        Path subDir = Files.createDirectory(watchDir.resolve("site-a"));
+        Path edfFile = Files.write(subDir.resolve("recording.edf"), new byte[512]);
+
+        // Then it is picked up as well
+        verify(edfFileService, timeout(TIMEOUT_MS)).processLocalEdfFile(edfFile);
+    }
+
+    @Test
+    void testExistingEdfFile_IsIngestedOnStart() throws IOException {
+        // Given a file that was dropped while the service was not running
+        watchService.stop();
+        Path edfFile = Files.write(watchDir.resolve("existing.edf"), new byte[512]);
+
+        // When the service starts
+        watchService.start();
+
+        // Then the file is ingested without any further event
+        verify(edfFileService, timeout(TIMEOUT_MS)).processLocalEdfFile(edfFile);
+    }
+
+    @Test
+    void testUnchangedEdfFile_IsNotIngestedAgain() throws IOException {
+        // Given a file whose size and modification time were recorded when it was ingested
+        watchService.stop();
+        Path edfFile = Files.write(watchDir.resolve("ingested.edf"), new byte[512]);
+        EdfMetadata metadata = new EdfMetadata();
+        metadata.setSourceSize(Files.size(edfFile));
+        metadata.setSourceLastModified(Files.getLastModifiedTime(edfFile).toMillis());
+        when(edfFileService.findStoredMetadata(edfFile.toUri().toString())).thenReturn(Optional.of(metadata));
+
+        // When the service starts, and the file is modified later
+        watchService.start();
+        verify(edfFileService, timeout(TIMEOUT_MS)).findStoredMetadata(edfFile.toUri().toString());
+        Files.write(edfFile, new byte[1024]);
+
+        // Then only the changed file is ingested
+        verify(edfFileService, timeout(TIMEOUT_MS)).processLocalEdfFile(edfFile);
+        verify(edfFileService, after(1000).times(1)).processLocalEdfFile(edfFile);
+    }
+
+    @Test
+    void testNonEdfFile_IsIgnored() throws IOException {
+        // Given a file without the EDF extension
+        Files.write(watchDir.resolve("notes.txt"), new byte[512]);
+
+        // Then it is never ingested
+        verify(edfFileService, after(1500).never()).processLocalEdfFile(any());
+    }
+}
@@ -0,0 +1,286 @@
+package com.zetoinc.edf_file_service.loadtest;
+
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import com.zetoinc.edf_file_service.support.LocalOriginServer;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code /api/edf/descriptor} at a fixed request rate and reports throughput and latency percentiles.
+ * <p>
+ * Everything runs in one JVM and needs no network access: synthetic EDF files are served by a
+ * {@link LocalOriginServer} with injected latency, and the application runs against an in-memory database
+ * unless {@code baseUrl} points at an already running instance. The load is open-loop: requests are sent
+ * on a fixed schedule regardless of how many are outstanding, and latency is measured from the scheduled
+ * send time, so a stalled server shows up in the percentiles instead of silently lowering the rate.
+ * </p>
+ * <p>
+ * Options are read from system properties, e.g.
+ * {@code mvn -Ploadtest test -Dload.rate=200 -Dload.duration=60 -Dload.originLatencyMs=20}.
+ * </p>
+ */
+public final class DescriptorLoadHarness {
+
+    private DescriptorLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.fromSystemProperties();
+        System.out.println("Running descriptor load test: " + options);
+        System.out.println(run(options));
+    }
+
+    /**
+     * Runs a load test.
+     *
+     * @param options The load test options.
+     * @return The measured results, excluding the warmup phase.
+     * @throws IOException          If the origin server cannot be started.
+     * @throws InterruptedException If interrupted while waiting for outstanding requests.
+     */
+    public static Report run(Options options) throws IOException, InterruptedException {
+        try (LocalOriginServer origin = LocalOriginServer.start()) {
+            origin.latency(Duration.ofMillis(options.originLatencyMs), Duration.ofMillis(options.originJitterMs));
+            List<String> fileUrls = new ArrayList<>();
+            for (int i = 0; i < options.files; i++) {
+                byte[] content = SyntheticEdfFile.builder()
+                        .channels(options.channels)
+                        .sampleRates(options.sampleRate)
+                        .duration(options.recordingSeconds)
+                        .patientId(String.format(Locale.ROOT, "LOAD-%04d", i))
+                        .seed(i)
+                        .build()
+                        .toBytes();
+                fileUrls.add(origin.serve("recording-" + i + ".edf", content));
+            }
+
+            ConfigurableApplicationContext context = null;
+            String baseUrl = options.baseUrl;
+            if (baseUrl == null) {
+                context = EmbeddedApplication.start(WebApplicationType.SERVLET, options.applicationProperties);
+                baseUrl = "http://localhost:" + EmbeddedApplication.port(context);
+            }
+            try {
+                List<HttpRequest> requests = new ArrayList<>();
+                for (String fileUrl : fileUrls) {
+                    requests.add(HttpRequest.newBuilder(URI.create(baseUrl + "/api/edf/descriptor?key="
+                                    + URLEncoder.encode(options.key, StandardCharsets.UTF_8)
+                                    + "&fileUrl=" + URLEncoder.encode(fileUrl, StandardCharsets.UTF_8)))
+                            .timeout(Duration.ofSeconds(options.requestTimeoutSeconds))
+                            .GET()
+                            .build());
+                }
+                HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+                drive(client, requests, options.rate, options.warmupSeconds, null);
+                Recorder recorder = new Recorder((int) Math.min(Integer.MAX_VALUE - 8, (long) options.rate * options.durationSeconds + 1));
+                long elapsedNanos = drive(client, requests, options.rate, options.durationSeconds, recorder);
+                return recorder.report(elapsedNanos, origin.bytesServed());
+            } finally {
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+    }
+
+    private static long drive(HttpClient client, List<HttpRequest> requests, double rate, int seconds, Recorder recorder)
+            throws InterruptedException {
+        if (seconds <= 0) {
+            return 0;
+        }
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long total = (long) (rate * seconds);
+        List<CompletableFuture<?>> outstanding = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long scheduled = start + i * intervalNanos;
+            long wait;
+            while ((wait = scheduled - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            HttpRequest request = requests.get((int) (i % requests.size()));
+            outstanding.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - scheduled, error == null && response.statusCode() == 200);
+                        }
+                        return null;
+                    }));
+        }
+        try {
+            CompletableFuture.allOf(outstanding.toArray(CompletableFuture[]::new)).get();
+        } catch (ExecutionException e) {
+            // Failures are recorded per request
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Collects latencies of completed requests.
+     */
+    static final class Recorder {
+        private final long[] latencies;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Recorder(int capacity) {
+            this.latencies = new long[capacity];
+        }
+
+        void record(long latencyNanos, boolean success) {
+            if (!success) {
+                errors.incrementAndGet();
+            }
+            long index = count.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[(int) index] = latencyNanos;
+            }
+        }
+
+        Report report(long elapsedNanos, long originBytes) {
+            int n = (int) Math.min(count.get(), latencies.length);
+            long[] sorted = Arrays.copyOf(latencies, n);
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            return new Report(n, errors.get(), seconds > 0 ? n / seconds : 0,
+                    percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                    n > 0 ? sorted[n - 1] / 1e6 : 0, originBytes);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+        }
+    }
+
+    /**
+     * Results of a load test run. Latencies are in milliseconds.
+     */
+    public record Report(long requests, long errors, double throughput,
+                         double p50, double p99, double p999, double max, long originBytes) {
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "requests=%d errors=%d throughput=%.1f req/s p50=%.2f ms p99=%.2f ms p999=%.2f ms max=%.2f ms origin-bytes=%d",
+                    requests, errors, throughput, p50, p99, p999, max, originBytes);
+        }
+    }
+
+    /**
+     * Load test options.
+     */
+    public static final class Options {
+        double rate = 50;
+        int durationSeconds = 30;
+        int warmupSeconds = 10;
+        int files = 20;
+        int channels = 32;
+        double sampleRate = 256;
+        double recordingSeconds = 60;
+        long originLatencyMs = 5;
+        long originJitterMs = 5;
+        int requestTimeoutSeconds = 30;
+        String baseUrl;
+        String key = EmbeddedApplication.SECRET_KEY;
+        String[] applicationProperties = new String[0];
+
+        /**
+         * Reads the options from {@code load.*} system properties, falling back to the defaults.
+         *
+         * @return The options.
+         */
+        public static Options fromSystemProperties() {
+            Options options = new Options();
+            options.rate = Double.parseDouble(System.getProperty("load.rate", String.valueOf(options.rate)));
+            options.durationSeconds = Integer.getInteger("load.duration", options.durationSeconds);
+            options.warmupSeconds = Integer.getInteger("load.warmup", options.warmupSeconds);
+            options.files = Integer.getInteger("load.files", options.files);
+            options.channels = Integer.getInteger("load.channels", options.channels);
+            options.sampleRate = Double.parseDouble(System.getProperty("load.sampleRate", String.valueOf(options.sampleRate)));
+            options.recordingSeconds = Double.parseDouble(System.getProperty("load.recordingSeconds", String.valueOf(options.recordingSeconds)));
+            options.originLatencyMs = Long.getLong("load.originLatencyMs", options.originLatencyMs);
+            options.originJitterMs = Long.getLong("load.originJitterMs", options.originJitterMs);
+            options.requestTimeoutSeconds = Integer.getInteger("load.requestTimeout", options.requestTimeoutSeconds);
+            options.baseUrl = System.getProperty("load.baseUrl");
+            options.key = System.getProperty("load.key", options.key);
+            return options;
+        }
+
+        public Options rate(double rate) {
+            this.rate = rate;
+            return this;
+        }
+
+        public Options durationSeconds(int durationSeconds) {
+            this.durationSeconds = durationSeconds;
+            return this;
+        }
+
+        public Options warmupSeconds(int warmupSeconds) {
+            this.warmupSeconds = warmupSeconds;
+            return this;
+        }
+
+        public Options files(int files) {
+            this.files = files;
+            return this;
+        }
+
+        public Options channels(int channels) {
+            this.channels = channels;
+            return this;
+        }
+
+        public Options recordingSeconds(double recordingSeconds) {
+            this.recordingSeconds = recordingSeconds;
+            return this;
+        }
+
+        public Options originLatency(long latencyMs, long jitterMs) {
+            this.originLatencyMs = latencyMs;
+            this.originJitterMs = jitterMs;
+            return this;
+        }
+
+        /**
+         * Sets additional {@code key=value} properties for the embedded application.
+         */
+        public Options applicationProperties(String... properties) {
+            this.applicationProperties = properties.clone();
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "rate=%.1f/s duration=%ds warmup=%ds files=%d channels=%d sampleRate=%.0fHz recording=%.0fs origin-latency=%d+%dms target=%s",
+                    rate, durationSeconds, warmupSeconds, files, channels, sampleRate, recordingSeconds,
+                    originLatencyMs, originJitterMs, baseUrl != null ? baseUrl : "embedded");
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.zetoinc.edf_file_service.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test for {@link DescriptorLoadHarness}: a short, low-rate run against the embedded application.
+ */
+class DescriptorLoadHarnessTest {
+
+    @Test
+    void testRun_ReportsEveryScheduledRequest() throws Exception {
+        // Given a two second run at 10 requests per second
+        DescriptorLoadHarness.Options options = new DescriptorLoadHarness.Options()
+                .rate(10)
+                .durationSeconds(2)
+                .warmupSeconds(1)
+                .files(2)
+                .channels(4)
+                .recordingSeconds(5)
+                .originLatency(1, 1);
+
+        // When running the load test
+        DescriptorLoadHarness.Report report = DescriptorLoadHarness.run(options);
+
+        // Then every request succeeded and latencies were recorded
+        assertEquals(20, report.requests());
+        assertEquals(0, report.errors());
+        assertTrue(report.p50() > 0, "Expected a positive median latency");
+        assertTrue(report.p50() <= report.p99() && report.p99() <= report.p999(), "Expected ordered percentiles");
+    }
+}
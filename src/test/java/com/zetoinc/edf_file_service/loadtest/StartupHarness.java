@@ -0,0 +1,231 @@
+package com.zetoinc.edf_file_service.loadtest;
+
+import com.zetoinc.edf_file_service.support.LocalOriginServer;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the service until its first successful {@code /api/edf/descriptor} response,
+ * with and without Spring AOT and class-data sharing.
+ * <p>
+ * The AOT build leaves springdoc out, so every mode but {@code baseline} runs with springdoc disabled;
+ * {@code baseline} against {@code no-api-docs} shows what springdoc costs, and {@code no-api-docs}
+ * against the other modes what AOT and CDS save.
+ * </p>
+ * <p>
+ * Every run starts a new JVM from the thin jar and {@code lib/} directory built by the {@code aot-cds} profile,
+ * against an in-memory H2 database and a {@link LocalOriginServer} serving a synthetic EDF file, and polls the
+ * descriptor endpoint until it answers {@code 200}. The archives for the CDS modes are trained here, with the
+ * same class path as the measured runs, since an archive is only used when the class path matches.
+ * </p>
+ * <p>
+ * Options are read from system properties, e.g. {@code mvn -Paot-cds,startup verify -Dstartup.runs=10}.
+ * </p>
+ */
+public final class StartupHarness {
+
+    private static final String SECRET_KEY = "startup-secret";
+    private static final String MAIN_CLASS = "com.zetoinc.edf_file_service.EdfFileServiceApplication";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupHarness() {
+    }
+
+    /**
+     * The measured startup configurations.
+     */
+    enum Mode {
+        BASELINE("baseline", false, false, true),
+        NO_API_DOCS("no-api-docs", false, false, false),
+        AOT("aot", true, false, false),
+        CDS("cds", false, true, false),
+        AOT_CDS("aot+cds", true, true, false);
+
+        private final String label;
+        private final boolean aot;
+        private final boolean cds;
+        private final boolean apiDocs;
+
+        Mode(String label, boolean aot, boolean cds, boolean apiDocs) {
+            this.label = label;
+            this.aot = aot;
+            this.cds = cds;
+            this.apiDocs = apiDocs;
+        }
+
+        String label() {
+            return label;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path cdsDirectory = Paths.get(System.getProperty("startup.cdsDirectory", "target/cds"));
+        Path workDirectory = Files.createDirectories(Paths.get(System.getProperty("startup.workDirectory", "target/startup")));
+
+        String classPath = applicationJar(cdsDirectory) + File.pathSeparator + h2Jar();
+        try (LocalOriginServer origin = LocalOriginServer.start()) {
+            String fileUrl = origin.serve("startup.edf",
+                    SyntheticEdfFile.builder().channels(32).samplesPerRecord(256).records(60).build().toBytes());
+
+            System.out.printf("Time to first successful descriptor over %d runs:%n", runs);
+            for (Mode mode : Mode.values()) {
+                Path archive = workDirectory.resolve(mode.label().replace('+', '-') + ".jsa");
+                if (mode.cds) {
+                    Files.deleteIfExists(archive);
+                    train(classPath, mode, archive, workDirectory);
+                }
+                long[] millis = new long[runs];
+                for (int run = 0; run < runs; run++) {
+                    millis[run] = measure(classPath, mode, archive, fileUrl, workDirectory);
+                }
+                System.out.println(report(mode, millis));
+            }
+        }
+    }
+
+    private static void train(String classPath, Mode mode, Path archive, Path workDirectory)
+            throws IOException, InterruptedException {
+        List<String> command = javaCommand(classPath, mode, null);
+        command.add(1, "-XX:ArchiveClassesAtExit=" + archive);
+        command.add(2, "-Xlog:cds=error");
+        command.add(3, "-Dspring.context.exit=onRefresh");
+        command.addAll(applicationArguments(freePort(), mode));
+
+        Process process = start(command, workDirectory.resolve(mode.label().replace('+', '-') + "-training.log"));
+        if (!process.waitFor(STARTUP_TIMEOUT.toSeconds(), TimeUnit.SECONDS) || !Files.isRegularFile(archive)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training run for " + mode.label() + " did not produce " + archive);
+        }
+    }
+
+    private static long measure(String classPath, Mode mode, Path archive, String fileUrl, Path workDirectory)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = javaCommand(classPath, mode, mode.cds ? archive : null);
+        command.addAll(applicationArguments(port, mode));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/edf/descriptor?key="
+                        + SECRET_KEY + "&fileUrl=" + URLEncoder.encode(fileUrl, StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        long start = System.nanoTime();
+        Process process = start(command, workDirectory.resolve(mode.label().replace('+', '-') + ".log"));
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + " in mode " + mode.label());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("No successful descriptor within " + STARTUP_TIMEOUT + " in mode " + mode.label());
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static List<String> javaCommand(String classPath, Mode mode, Path archive) {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        if (mode.aot) {
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-cp");
+        command.add(classPath);
+        command.add(MAIN_CLASS);
+        return command;
+    }
+
+    private static List<String> applicationArguments(int port, Mode mode) {
+        return List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:edf;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.zetoinc=WARN",
+                "--logging.file.name=",
+                "--app.secret.key=" + SECRET_KEY,
+                "--springdoc.api-docs.enabled=" + mode.apiDocs,
+                "--springdoc.swagger-ui.enabled=" + mode.apiDocs);
+    }
+
+    private static Process start(List<String> command, Path log) throws IOException {
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static Path applicationJar(Path cdsDirectory) throws IOException {
+        try (DirectoryStream<Path> jars = Files.newDirectoryStream(cdsDirectory, "*-cds.jar")) {
+            for (Path jar : jars) {
+                return jar.toAbsolutePath();
+            }
+        } catch (IOException e) {
+            // Reported below
+        }
+        throw new IOException("No application jar in " + cdsDirectory + ", build it with mvn -Paot-cds package");
+    }
+
+    /**
+     * H2 is a test dependency, so it is taken from the class path this harness runs with.
+     */
+    private static String h2Jar() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> Paths.get(entry).getFileName().toString().startsWith("h2-"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the class path"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String report(Mode mode, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return String.format(Locale.ROOT, "  %-12s median=%d ms min=%d ms max=%d ms",
+                mode.label(), sorted[sorted.length / 2], sorted[0], sorted[sorted.length - 1]);
+    }
+}
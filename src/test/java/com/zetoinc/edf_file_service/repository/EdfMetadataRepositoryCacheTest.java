@@ -0,0 +1,189 @@
+package com.zetoinc.edf_file_service.repository;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifies that {@link EdfMetadataRepository} lookups are served from the metadata cache and
+ * that writes keep the cache consistent, against an embedded H2 database.
+ */
+class EdfMetadataRepositoryCacheTest {
+
+    private static ConfigurableApplicationContext context;
+    private static EdfMetadataRepository repository;
+    private static Statistics statistics;
+
+    @BeforeAll
+    static void startApplication() {
+        context = EmbeddedApplication.start(WebApplicationType.NONE,
+                "spring.jpa.properties.hibernate.generate_statistics=true", "app.jobs.enabled=false");
+        repository = context.getBean(EdfMetadataRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterAll
+    static void stopApplication() {
+        context.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindById_SecondLookupIsServedFromCache() {
+        // Arrange
+        EdfMetadata saved = repository.save(metadata("PATIENT-1", "EEG Fp1", "EEG Fp2"));
+        statistics.clear();
+
+        // Act
+        EdfMetadata first = repository.findById(saved.getId()).orElseThrow();
+        long statementsAfterFirst = statistics.getPrepareStatementCount();
+        EdfMetadata second = repository.findById(saved.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(0, statementsAfterFirst, "Saved metadata should already be in the cache");
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(List.of("EEG Fp1", "EEG Fp2"), second.getChannelNames());
+        assertEquals(first.getId(), second.getId());
+        assertEquals(first.getPatientId(), second.getPatientId());
+        assertEquals(first.getChannelNames(), second.getChannelNames());
+    }
+
+    @Test
+    void testFindById_ChangesByCallersDoNotReachCache() {
+        // Arrange
+        EdfMetadata saved = repository.save(metadata("PATIENT-1", "EEG Fp1"));
+
+        // Act
+        saved.setTitle("Changed after save");
+        EdfMetadata first = repository.findById(saved.getId()).orElseThrow();
+        first.setTitle("Changed after lookup");
+        first.getChannelNames().add("EEG Fp2");
+        repository.findByPatientIdOrderByIdAsc("PATIENT-1").get(0).setPatientId("PATIENT-X");
+        EdfMetadata second = repository.findById(saved.getId()).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals("EDF File", second.getTitle());
+        assertEquals(List.of("EEG Fp1"), second.getChannelNames());
+        assertEquals("PATIENT-1", repository.findByPatientIdOrderByIdAsc("PATIENT-1").get(0).getPatientId());
+    }
+
+    @Test
+    void testBulkAndFlushingWrites_KeepCacheConsistent() {
+        // Act & Assert
+        EdfMetadata flushed = repository.saveAndFlush(metadata("PATIENT-4", "EEG Fp1"));
+        statistics.clear();
+        assertEquals(List.of("EEG Fp1"), repository.findById(flushed.getId()).orElseThrow().getChannelNames());
+        assertEquals(0, statistics.getPrepareStatementCount(), "saveAndFlush should put the metadata into the cache");
+
+        assertEquals(1, repository.findByPatientIdOrderByIdAsc("PATIENT-4").size());
+        List<EdfMetadata> batch = repository.saveAllAndFlush(List.of(metadata("PATIENT-4", "EEG Fp2"), metadata("PATIENT-4", "EEG Fp3")));
+        assertEquals(3, repository.findByPatientIdOrderByIdAsc("PATIENT-4").size());
+
+        repository.deleteAllById(List.of(batch.get(0).getId()));
+        assertEquals(2, repository.findByPatientIdOrderByIdAsc("PATIENT-4").size());
+
+        repository.findById(batch.get(1).getId());
+        repository.deleteAllByIdInBatch(List.of(batch.get(1).getId()));
+        assertTrue(repository.findById(batch.get(1).getId()).isEmpty());
+
+        repository.findById(flushed.getId());
+        repository.deleteAllInBatch();
+        assertTrue(repository.findById(flushed.getId()).isEmpty());
+        assertTrue(repository.findByPatientIdOrderByIdAsc("PATIENT-4").isEmpty());
+    }
+
+    @Test
+    void testFindById_LoadsChannelNamesOnMiss() {
+        // Arrange
+        EdfMetadata saved = repository.save(metadata("PATIENT-1", "EEG Fp1"));
+        context.getBean(CacheManager.class).getCache(EdfMetadataRepository.BY_ID_CACHE).clear();
+
+        // Act
+        EdfMetadata loaded = repository.findById(saved.getId()).orElseThrow();
+        long statements = statistics.getPrepareStatementCount();
+        repository.findById(saved.getId());
+
+        // Assert
+        assertEquals(List.of("EEG Fp1"), loaded.getChannelNames());
+        assertEquals(statements, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByPatient_IsCachedAndInvalidatedOnWrite() {
+        // Arrange
+        repository.save(metadata("PATIENT-2", "EEG Fp1"));
+        assertEquals(1, repository.findByPatientIdOrderByIdAsc("PATIENT-2").size());
+        statistics.clear();
+
+        // Act
+        repository.findByPatientIdOrderByIdAsc("PATIENT-2");
+        long statementsWhileCached = statistics.getPrepareStatementCount();
+        EdfMetadata added = repository.save(metadata("PATIENT-2", "EEG Fp2"));
+        List<EdfMetadata> afterSave = repository.findByPatientIdOrderByIdAsc("PATIENT-2");
+        repository.delete(added);
+        List<EdfMetadata> afterDelete = repository.findByPatientIdOrderByIdAsc("PATIENT-2");
+
+        // Assert
+        assertEquals(0, statementsWhileCached);
+        assertEquals(2, afterSave.size());
+        assertEquals(1, afterDelete.size());
+        assertTrue(repository.findById(added.getId()).isEmpty());
+    }
+
+    @Test
+    void testFindByPatient_ChangedPatientIdLeavesPreviousList() {
+        // Arrange
+        EdfMetadata saved = repository.save(metadata("PATIENT-5", "EEG Fp1"));
+        assertEquals(1, repository.findByPatientIdOrderByIdAsc("PATIENT-5").size());
+        assertTrue(repository.findByPatientIdOrderByIdAsc("PATIENT-6").isEmpty());
+
+        // Act
+        EdfMetadata moved = repository.findById(saved.getId()).orElseThrow();
+        moved.setPatientId("PATIENT-6");
+        repository.save(moved);
+
+        // Assert
+        assertTrue(repository.findByPatientIdOrderByIdAsc("PATIENT-5").isEmpty());
+        assertEquals(List.of(saved.getId()),
+                repository.findByPatientIdOrderByIdAsc("PATIENT-6").stream().map(EdfMetadata::getId).toList());
+        assertEquals("PATIENT-6", repository.findById(saved.getId()).orElseThrow().getPatientId());
+    }
+
+    @Test
+    void testCacheMetrics_AreRegistered() {
+        // Arrange
+        EdfMetadata saved = repository.save(metadata("PATIENT-3", "EEG Fp1"));
+
+        // Act
+        repository.findById(saved.getId());
+
+        // Assert
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        assertTrue(registry.get("cache.gets").tag("cache", EdfMetadataRepository.BY_ID_CACHE).tag("result", "hit")
+                .functionCounter().count() >= 1);
+    }
+
+    private static EdfMetadata metadata(String patientId, String... channelNames) {
+        return new EdfMetadata("EDF File", patientId, channelNames.length, 300.0, 0, "01.01.25", List.of(channelNames));
+    }
+}
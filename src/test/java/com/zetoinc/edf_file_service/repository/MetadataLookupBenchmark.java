@@ -0,0 +1,87 @@
+package com.zetoinc.edf_file_service.repository;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures metadata lookups by ID and by patient through {@link EdfMetadataRepository}, with the
+ * Caffeine metadata cache ({@code caffeine}) and without it ({@code none}), against an embedded H2 database.
+ * <p>
+ * Lookups pick uniformly from {@code hotRecords} stored records, so with a cache larger than that
+ * they are all hits after warmup. H2 runs in-process, so the uncached numbers are a lower bound for
+ * a MySQL round trip over the network.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataLookupBenchmark {
+
+    private static final int PATIENTS = 100;
+
+    @Param({"caffeine", "none"})
+    String cache;
+
+    @Param({"64"})
+    int channels;
+
+    @Param({"1000"})
+    int hotRecords;
+
+    private ConfigurableApplicationContext context;
+    private EdfMetadataRepository repository;
+    private long[] ids;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedApplication.start(WebApplicationType.NONE, "spring.cache.type=" + cache);
+        repository = context.getBean(EdfMetadataRepository.class);
+        List<String> channelNames = IntStream.rangeClosed(1, channels).mapToObj(c -> "EEG " + c).toList();
+        ids = new long[hotRecords];
+        for (int i = 0; i < hotRecords; i++) {
+            ids[i] = repository.save(new EdfMetadata("EDF File", patient(i % PATIENTS), channels, 300.0, 0, "01.01.25", channelNames)).getId();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<EdfMetadata> findById() {
+        return repository.findById(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+
+    @Benchmark
+    public List<EdfMetadata> findByPatient() {
+        return repository.findByPatientIdOrderByIdAsc(patient(ThreadLocalRandom.current().nextInt(PATIENTS)));
+    }
+
+    private static String patient(int index) {
+        return String.format("PATIENT-%03d", index);
+    }
+}
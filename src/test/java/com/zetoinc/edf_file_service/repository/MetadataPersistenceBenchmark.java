@@ -0,0 +1,58 @@
+package com.zetoinc.edf_file_service.repository;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.support.EmbeddedApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures saving EDF metadata through {@link EdfMetadataRepository} against an embedded H2 database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataPersistenceBenchmark {
+
+    @Param({"8", "64", "256"})
+    int channels;
+
+    private ConfigurableApplicationContext context;
+    private EdfMetadataRepository repository;
+    private List<String> channelNames;
+
+    @Setup
+    public void setUp() {
+        context = EmbeddedApplication.start(WebApplicationType.NONE);
+        repository = context.getBean(EdfMetadataRepository.class);
+        channelNames = IntStream.rangeClosed(1, channels).mapToObj(c -> "EEG " + c).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EdfMetadata save() {
+        return repository.save(new EdfMetadata("EDF File", "SYNTH-0001", channels, 1.0, 300, "01.01.25", channelNames));
+    }
+}
@@ -9,6 +9,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.util.StringUtils;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -101,4 +103,82 @@ class AuthServiceImplTest {
             assertFalse(result, "Expected mocked StringUtils to return false");
         }
     }
+
+    @Test
+    void testResolveKey_ConfiguredKeysWithQuotas() {
+        // Given a configured key with its own quota and one using the default quota
+        ApiKeyProperties properties = new ApiKeyProperties();
+        properties.getDefaultQuota().setRequestsPerSecond(5);
+        ApiKeyProperties.Quota quota = new ApiKeyProperties.Quota();
+        quota.setMaxConcurrentRequests(2);
+        properties.getKeys().add(key("clinic-a", "key-a", quota));
+        properties.getKeys().add(key("clinic-b", "key-b", null));
+        AuthServiceImpl service = new AuthServiceImpl(properties);
+        ReflectionTestUtils.setField(service, "secretKey", VALID_SECRET_KEY);
+
+        // When resolving the keys
+        Optional<ApiKey> clinicA = service.resolveKey("key-a");
+        Optional<ApiKey> clinicB = service.resolveKey("key-b");
+        Optional<ApiKey> legacy = service.resolveKey(VALID_SECRET_KEY);
+
+        // Then each key is found with its name and quota
+        assertEquals("clinic-a", clinicA.orElseThrow().name());
+        assertEquals(2, clinicA.get().quota().getMaxConcurrentRequests());
+        assertEquals("clinic-b", clinicB.orElseThrow().name());
+        assertEquals(5, clinicB.get().quota().getRequestsPerSecond());
+        assertEquals("default", legacy.orElseThrow().name());
+        assertTrue(service.isValidKey("key-b"));
+        assertTrue(service.resolveKey("key-c").isEmpty());
+    }
+
+    @Test
+    void testResolveKey_KeyWithoutName_IsIgnored() {
+        // Given a configured key without a name
+        ApiKeyProperties properties = new ApiKeyProperties();
+        properties.getKeys().add(key(null, "key-a", null));
+        properties.getKeys().add(key(" ", "key-b", null));
+        AuthServiceImpl service = new AuthServiceImpl(properties);
+        ReflectionTestUtils.setField(service, "secretKey", VALID_SECRET_KEY);
+
+        // When resolving the keys
+        Optional<ApiKey> unnamed = service.resolveKey("key-a");
+        Optional<ApiKey> blank = service.resolveKey("key-b");
+
+        // Then they are not accepted
+        assertTrue(unnamed.isEmpty());
+        assertTrue(blank.isEmpty());
+        assertTrue(service.isValidKey(VALID_SECRET_KEY));
+    }
+
+    @Test
+    void testResolveKey_DuplicateName_KeepsFirstKey() {
+        // Given two keys sharing a name, and one using the name of the legacy key
+        ApiKeyProperties properties = new ApiKeyProperties();
+        ApiKeyProperties.Quota quota = new ApiKeyProperties.Quota();
+        quota.setRequestsPerSecond(1);
+        properties.getKeys().add(key("clinic-a", "key-a", null));
+        properties.getKeys().add(key("clinic-a", "key-b", quota));
+        properties.getKeys().add(key("default", "key-c", quota));
+        AuthServiceImpl service = new AuthServiceImpl(properties);
+        ReflectionTestUtils.setField(service, "secretKey", VALID_SECRET_KEY);
+
+        // When resolving the keys
+        Optional<ApiKey> first = service.resolveKey("key-a");
+        Optional<ApiKey> duplicate = service.resolveKey("key-b");
+        Optional<ApiKey> legacyName = service.resolveKey("key-c");
+
+        // Then only the first key of each name is accepted, so no two keys share a quota
+        assertEquals("clinic-a", first.orElseThrow().name());
+        assertTrue(duplicate.isEmpty());
+        assertTrue(legacyName.isEmpty());
+        assertEquals("default", service.resolveKey(VALID_SECRET_KEY).orElseThrow().name());
+    }
+
+    private static ApiKeyProperties.Key key(String name, String value, ApiKeyProperties.Quota quota) {
+        ApiKeyProperties.Key key = new ApiKeyProperties.Key();
+        key.setName(name);
+        key.setKey(value);
+        key.setQuota(quota);
+        return key;
+    }
 }
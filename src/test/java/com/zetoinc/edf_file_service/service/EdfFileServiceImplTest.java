@@ -1,21 +1,36 @@
 package com.zetoinc.edf_file_service.service;
 
 import com.zetoinc.edf_file_service.exception.FileProcessingException;
+import com.zetoinc.edf_file_service.exception.InvalidEdfFileException;
 import com.zetoinc.edf_file_service.exception.InvalidFileURLException;
+import com.zetoinc.edf_file_service.fetch.FetchProperties;
+import com.zetoinc.edf_file_service.fetch.FetchService;
+import com.zetoinc.edf_file_service.fetch.FetchServiceImpl;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
 import com.zetoinc.edf_file_service.model.EdfMetadata;
 import com.zetoinc.edf_file_service.repository.EdfMetadataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,6 +45,17 @@ class EdfFileServiceImplTest {
     @Mock
     private EdfMetadataRepository repository;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private EdfMetrics metrics = new EdfMetrics(meterRegistry);
+
+    @Spy
+    private FetchService fetchService = new FetchServiceImpl(new FetchProperties(), metrics);
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private EdfFileServiceImpl edfFileService;
 
@@ -87,4 +113,132 @@ class EdfFileServiceImplTest {
 
         verify(repository, never()).save(any(EdfMetadata.class));
     }
+
+    @Test
+    void testProcessLocalEdfFile_ValidFile_SavesMetadata(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path edfFile = tempDir.resolve("recording.edf");
+        Files.write(edfFile, edfHeader(List.of("EEG Fp1", "EEG Fp2")));
+        when(repository.save(any(EdfMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        EdfMetadata metadata = edfFileService.processLocalEdfFile(edfFile);
+
+        // Assert
+        assertEquals(2, metadata.getNumberOfChannels());
+        assertEquals(List.of("EEG Fp1", "EEG Fp2"), metadata.getChannelNames());
+        assertEquals(edfFile.toUri().toString(), metadata.getSourceUri());
+        assertEquals(Files.size(edfFile), metadata.getSourceSize());
+        assertEquals(Files.getLastModifiedTime(edfFile).toMillis(), metadata.getSourceLastModified());
+        verify(repository).save(metadata);
+    }
+
+    @Test
+    void testProcessEdfFile_FileUrl_RecordsStageTimersAndBytes(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        Path edfFile = tempDir.resolve("recording.edf");
+        byte[] header = edfHeader(List.of("EEG Fp1"));
+        Files.write(edfFile, Arrays.copyOf(header, header.length + 1000));
+        when(repository.save(any(EdfMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        edfFileService.processEdfFile(edfFile.toUri().toString());
+
+        // Assert
+        for (String stage : List.of("download", "header_parse", "persistence")) {
+            assertEquals(1, meterRegistry.get("edf.stage.duration").tag("stage", stage).timer().count(),
+                    "Expected one recording for stage " + stage);
+        }
+        // Only the header is fetched, not the data records behind it
+        assertEquals(header.length, meterRegistry.get("edf.fetch.bytes").tag("kind", "fetched").counter().count());
+        assertEquals(header.length, meterRegistry.get("edf.fetch.bytes").tag("kind", "needed").counter().count());
+    }
+
+    @Test
+    void testProcessEdfFile_UnreachableFile_RecordsFetchFailure(@TempDir Path tempDir) {
+        // Act & Assert
+        assertThrows(FileProcessingException.class,
+                () -> edfFileService.processEdfFile(tempDir.resolve("missing.edf").toUri().toString()));
+
+        assertEquals(1, meterRegistry.get("edf.fetch.failures").tag("host", "local").counter().count());
+    }
+
+    @Test
+    void testProcessLocalEdfFile_MissingFile_ThrowsFileProcessingException(@TempDir Path tempDir) {
+        // Act & Assert
+        assertThrows(FileProcessingException.class, () -> edfFileService.processLocalEdfFile(tempDir.resolve("missing.edf")),
+                "Expected FileProcessingException for a missing file");
+
+        verify(repository, never()).save(any(EdfMetadata.class));
+    }
+
+    @Test
+    void testProcessEdfUpload_ValidContent_StoresFileAndSavesMetadata(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(edfFileService, "storageDirectory", tempDir.toString());
+        byte[] header = edfHeader(List.of("EEG Fp1"));
+        byte[] content = Arrays.copyOf(header, header.length + 4096);
+        when(repository.save(any(EdfMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        EdfMetadata metadata = edfFileService.processEdfUpload(new ByteArrayInputStream(content));
+
+        // Assert
+        assertEquals(List.of("EEG Fp1"), metadata.getChannelNames());
+        Path stored = Path.of(URI.create(metadata.getSourceUri()));
+        assertArrayEquals(content, Files.readAllBytes(stored));
+        verify(eventPublisher).publishEvent(new EdfFileStoredEvent(metadata, stored));
+    }
+
+    @Test
+    void testProcessEdfUpload_TruncatedHeader_ThrowsInvalidEdfFileException(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(edfFileService, "storageDirectory", tempDir.toString());
+
+        // Act & Assert
+        assertThrows(InvalidEdfFileException.class, () -> edfFileService.processEdfUpload(new ByteArrayInputStream(new byte[100])),
+                "Expected InvalidEdfFileException for a truncated header");
+
+        verify(repository, never()).save(any(EdfMetadata.class));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "Expected the partial upload to be removed");
+        }
+    }
+
+    @Test
+    void testProcessEdfUpload_SaveFails_RemovesPartialUpload(@TempDir Path tempDir) throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(edfFileService, "storageDirectory", tempDir.toString());
+        byte[] header = edfHeader(List.of("EEG Fp1"));
+        when(repository.save(any(EdfMetadata.class))).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> edfFileService.processEdfUpload(new ByteArrayInputStream(Arrays.copyOf(header, header.length + 4096))));
+
+        verify(repository, never()).delete(any(EdfMetadata.class));
+        verifyNoInteractions(eventPublisher);
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count(), "Expected the partial upload to be removed");
+        }
+    }
+
+    /**
+     * Builds a minimal EDF header with the given channel labels.
+     */
+    private static byte[] edfHeader(List<String> labels) {
+        byte[] header = new byte[256 + labels.size() * 16];
+        Arrays.fill(header, (byte) ' ');
+        putField(header, 0, "0");
+        putField(header, 252, String.valueOf(labels.size()));
+        for (int i = 0; i < labels.size(); i++) {
+            putField(header, 256 + i * 16, labels.get(i));
+        }
+        return header;
+    }
+
+    private static void putField(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
 }
@@ -0,0 +1,83 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EdfHeaderParser}.
+ */
+class EdfHeaderParserTest {
+
+    @Test
+    void testReadHeader_StopsAfterChannelLabels() throws IOException {
+        // Given a header with three channels followed by data
+        byte[] header = header("Patient-123", "3", List.of("EEG Fp1", "EEG Fp2", "ECG"));
+        byte[] content = Arrays.copyOf(header, header.length + 100);
+        InputStream in = new ByteArrayInputStream(content);
+
+        // When reading the header
+        byte[] read = EdfHeaderParser.readHeader(in);
+
+        // Then exactly the header is consumed
+        assertArrayEquals(header, read);
+        assertEquals(100, in.available());
+    }
+
+    @Test
+    void testParse_ExtractsMetadata() {
+        // Given a header with two channels
+        byte[] header = header("Patient-123", "2", List.of("EEG Fp1", "EEG Fp2"));
+
+        // When parsing it
+        EdfMetadata metadata = EdfHeaderParser.parse(header);
+
+        // Then the fields are extracted
+        assertEquals("Patient-123", metadata.getPatientId());
+        assertEquals(2, metadata.getNumberOfChannels());
+        assertEquals(List.of("EEG Fp1", "EEG Fp2"), metadata.getChannelNames());
+    }
+
+    @Test
+    void testParse_UnparsableChannelCount_HasNoChannels() {
+        // Given a header whose channel count is not a number
+        byte[] header = header("Patient-123", "xx", List.of());
+
+        // Then no channels are extracted
+        assertEquals(0, EdfHeaderParser.parse(header).getNumberOfChannels());
+    }
+
+    @Test
+    void testReadHeader_TruncatedLabels_ThrowsEOFException() {
+        // Given a header that declares more channels than it contains
+        byte[] header = header("Patient-123", "4", List.of("EEG Fp1"));
+
+        // Then reading it fails
+        assertThrows(EOFException.class, () -> EdfHeaderParser.readHeader(new ByteArrayInputStream(header)));
+    }
+
+    private static byte[] header(String patientId, String numChannels, List<String> labels) {
+        byte[] header = new byte[EdfHeaderParser.headerLength(labels.size())];
+        Arrays.fill(header, (byte) ' ');
+        putField(header, 168, patientId);
+        putField(header, 252, numChannels);
+        for (int i = 0; i < labels.size(); i++) {
+            putField(header, EdfHeaderParser.FIXED_HEADER_SIZE + i * EdfHeaderParser.LABEL_SIZE, labels.get(i));
+        }
+        return header;
+    }
+
+    private static void putField(byte[] header, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, bytes.length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.zetoinc.edf_file_service.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EdfSampleDecoder}.
+ */
+class EdfSampleDecoderTest {
+
+    @Test
+    void testDigitalValue_LittleEndianTwosComplement() {
+        byte[] data = {0x01, 0x00, (byte) 0xff, (byte) 0xff, 0x00, (byte) 0x80, (byte) 0xff, 0x7f};
+
+        assertEquals(1, EdfSampleDecoder.digitalValue(data, 0));
+        assertEquals(-1, EdfSampleDecoder.digitalValue(data, 2));
+        assertEquals(Short.MIN_VALUE, EdfSampleDecoder.digitalValue(data, 4));
+        assertEquals(Short.MAX_VALUE, EdfSampleDecoder.digitalValue(data, 6));
+    }
+
+    @Test
+    void testDecode_MapsDigitalRangeOntoPhysicalRange() {
+        double gain = EdfSampleDecoder.gain(-100.0, 100.0, -32768, 32767);
+        double offset = EdfSampleDecoder.offset(-100.0, -32768, gain);
+        byte[] data = {0x00, (byte) 0x80, (byte) 0xff, 0x7f};
+        double[] out = new double[3];
+
+        EdfSampleDecoder.decode(data, 0, 2, gain, offset, out, 1);
+
+        assertEquals(0.0, out[0]);
+        assertEquals(-100.0, out[1], 1e-9);
+        assertEquals(100.0, out[2], 1e-9);
+    }
+
+    @Test
+    void testGain_EmptyDigitalRange_IsIdentity() {
+        assertEquals(1.0, EdfSampleDecoder.gain(0.0, 10.0, 5, 5));
+    }
+}
@@ -0,0 +1,62 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EdfSignalHeader}.
+ */
+class EdfSignalHeaderTest {
+
+    @Test
+    void testParse_MixedSampleRates_LocatesSignalsInDataRecord() throws IOException {
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(3).sampleRates(256, 128, 64).recordDuration(0.5).records(4).build();
+
+        EdfSignalHeader header = EdfSignalHeader.parse(Arrays.copyOf(file.toBytes(), file.headerSize()));
+
+        assertEquals(file.headerSize(), header.size());
+        assertEquals(4, header.records());
+        assertEquals(0.5, header.recordDuration());
+        assertEquals(file.recordSize(), header.recordSize());
+        assertEquals(0, header.offsetInRecord(0));
+        assertEquals(256, header.offsetInRecord(1));
+        assertEquals(384, header.offsetInRecord(2));
+        assertEquals(128.0, header.sampleRate(1));
+        assertEquals("EEG 3", header.signals().get(2).label());
+        assertEquals(32, header.signals().get(2).samplesPerRecord());
+    }
+
+    @Test
+    void testParse_SignalScaling_MatchesSampleDecoder() throws IOException {
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(1).records(1).build();
+
+        EdfSignalHeader.Signal signal = EdfSignalHeader.parse(Arrays.copyOf(file.toBytes(), file.headerSize())).signals().get(0);
+
+        assertEquals(-3200.0, Short.MIN_VALUE * signal.gain() + signal.offset(), 1e-9);
+        assertEquals(3200.0, Short.MAX_VALUE * signal.gain() + signal.offset(), 1e-9);
+    }
+
+    @Test
+    void testParse_EdfPlus_IncludesAnnotationSignal() throws IOException {
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(2).records(3).annotation(1.0, 0, "Event").build();
+
+        EdfSignalHeader header = EdfSignalHeader.parse(Arrays.copyOf(file.toBytes(), file.headerSize()));
+
+        assertEquals(3, header.signals().size());
+        assertEquals(SyntheticEdfFile.ANNOTATIONS_LABEL, header.signals().get(2).label());
+        assertEquals(file.recordSize(), header.recordSize());
+    }
+
+    @Test
+    void testParse_TruncatedSignalHeaders_ThrowsEOFException() {
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(4).records(1).build();
+
+        assertThrows(EOFException.class, () -> EdfSignalHeader.parse(Arrays.copyOf(file.toBytes(), file.headerSize() - 1)));
+    }
+}
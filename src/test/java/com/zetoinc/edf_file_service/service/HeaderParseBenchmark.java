@@ -0,0 +1,67 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the file based metadata extraction of {@link EdfFileServiceImpl} with the streaming {@link EdfHeaderParser}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderParseBenchmark {
+
+    @Param({"8", "64", "256"})
+    int channels;
+
+    @Param({"10", "300"})
+    int records;
+
+    private Path file;
+    private EdfFileServiceImpl service;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = SyntheticEdfFile.builder().channels(channels).records(records).build()
+                .writeTo(Files.createTempFile("header-parse", ".edf"));
+        service = new EdfFileServiceImpl(null, null, null, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public EdfMetadata extractEdfMetadata() throws IOException {
+        return service.extractEdfMetadata(file);
+    }
+
+    @Benchmark
+    public EdfMetadata edfHeaderParser() throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return EdfHeaderParser.parse(EdfHeaderParser.readHeader(in));
+        }
+    }
+}
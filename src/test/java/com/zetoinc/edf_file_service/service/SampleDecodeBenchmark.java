@@ -0,0 +1,73 @@
+package com.zetoinc.edf_file_service.service;
+
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding the data records of an interleaved EDF file with {@link EdfSampleDecoder},
+ * for all channels and for a single channel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SampleDecodeBenchmark {
+
+    private static final int SAMPLES_PER_RECORD = 256;
+
+    @Param({"8", "64", "256"})
+    int channels;
+
+    @Param({"10", "300"})
+    int records;
+
+    private byte[] content;
+    private int dataOffset;
+    private double gain;
+    private double offset;
+    private double[] allChannels;
+    private double[] singleChannel;
+
+    @Setup
+    public void setUp() {
+        SyntheticEdfFile file = SyntheticEdfFile.builder()
+                .channels(channels).samplesPerRecord(SAMPLES_PER_RECORD).records(records).build();
+        content = file.toBytes();
+        dataOffset = file.headerSize();
+        gain = EdfSampleDecoder.gain(-3200.0, 3200.0, -32768, 32767);
+        offset = EdfSampleDecoder.offset(-3200.0, -32768, gain);
+        allChannels = new double[channels * SAMPLES_PER_RECORD * records];
+        singleChannel = new double[SAMPLES_PER_RECORD * records];
+    }
+
+    @Benchmark
+    public double[] decodeAllChannels() {
+        EdfSampleDecoder.decode(content, dataOffset, allChannels.length, gain, offset, allChannels, 0);
+        return allChannels;
+    }
+
+    @Benchmark
+    public double[] decodeSingleChannel() {
+        int recordSize = channels * SAMPLES_PER_RECORD * EdfSampleDecoder.BYTES_PER_SAMPLE;
+        int channel = channels / 2;
+        for (int r = 0; r < records; r++) {
+            int position = dataOffset + r * recordSize + channel * SAMPLES_PER_RECORD * EdfSampleDecoder.BYTES_PER_SAMPLE;
+            EdfSampleDecoder.decode(content, position, SAMPLES_PER_RECORD, gain, offset, singleChannel, r * SAMPLES_PER_RECORD);
+        }
+        return singleChannel;
+    }
+}
@@ -0,0 +1,160 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.service.EdfSampleDecoder;
+import com.zetoinc.edf_file_service.service.EdfSignalHeader;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ColumnarTranscoder}, {@link ColumnarSignalSource} and {@link EdfSignalSource}.
+ */
+class ColumnarTranscoderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testTranscode_MixedSampleRates_ReadsSameSamplesAsEdfFile() throws IOException {
+        // Arrange
+        SyntheticEdfFile edf = SyntheticEdfFile.builder()
+                .channels(4).sampleRates(256, 128, 500, 1).records(23).build();
+        Path source = edf.writeTo(tempDir.resolve("mixed.edf"));
+        Path target = tempDir.resolve("mixed.edfc");
+
+        // Act
+        ColumnarTranscoder.Result result = ColumnarTranscoder.transcode(source, target, 5, 6);
+
+        // Assert
+        assertEquals(edf.size(), result.sourceBytes());
+        assertEquals(Files.size(target), result.transcodedBytes());
+        assertEquals(4 * 5, result.chunks());
+        byte[] content = Files.readAllBytes(source);
+        try (EdfSignalSource raw = EdfSignalSource.open(source);
+             ColumnarSignalSource columnar = ColumnarSignalSource.open(target)) {
+            assertEquals(23, columnar.records());
+            assertArrayEquals(raw.header().bytes(), columnar.header().bytes());
+            for (int signal = 0; signal < 4; signal++) {
+                short[] expected = expectedSamples(content, signal);
+                assertArrayEquals(expected, read(raw, signal, 0, expected.length), "EDF signal " + signal);
+                assertArrayEquals(expected, read(columnar, signal, 0, expected.length), "Columnar signal " + signal);
+            }
+        }
+    }
+
+    @Test
+    void testReadDigital_RangeAcrossChunkBoundaries_MatchesEdfFile() throws IOException {
+        // Arrange
+        Path source = SyntheticEdfFile.builder().channels(3).samplesPerRecord(100).records(12).build()
+                .writeTo(tempDir.resolve("ranges.edf"));
+        Path target = tempDir.resolve("ranges.edfc");
+        ColumnarTranscoder.transcode(source, target, 4, 1);
+        short[] expected = expectedSamples(Files.readAllBytes(source), 1);
+
+        // Act & Assert
+        try (EdfSignalSource raw = EdfSignalSource.open(source);
+             ColumnarSignalSource columnar = ColumnarSignalSource.open(target)) {
+            for (int[] range : new int[][]{{0, 1}, {399, 2}, {350, 500}, {799, 401}, {1199, 1}, {0, 1200}}) {
+                short[] slice = Arrays.copyOfRange(expected, range[0], range[0] + range[1]);
+                assertArrayEquals(slice, read(raw, 1, range[0], range[1]));
+                assertArrayEquals(slice, read(columnar, 1, range[0], range[1]));
+            }
+        }
+    }
+
+    @Test
+    void testTranscode_EdfPlus_KeepsAnnotationSignal() throws IOException {
+        // Arrange
+        Path source = SyntheticEdfFile.builder().channels(2).records(6).annotation(2.0, 0, "Seizure").build()
+                .writeTo(tempDir.resolve("plus.edf"));
+        Path target = tempDir.resolve("plus.edfc");
+
+        // Act
+        ColumnarTranscoder.transcode(source, target, 4, 6);
+
+        // Assert
+        byte[] content = Files.readAllBytes(source);
+        try (ColumnarSignalSource columnar = ColumnarSignalSource.open(target)) {
+            assertEquals(SyntheticEdfFile.ANNOTATIONS_LABEL, columnar.header().signals().get(2).label());
+            short[] expected = expectedSamples(content, 2);
+            assertArrayEquals(expected, read(columnar, 2, 0, expected.length));
+        }
+    }
+
+    @Test
+    void testTranscode_SmoothSignals_CompressesBelowEdfSize() throws IOException {
+        // Arrange
+        Path source = SyntheticEdfFile.builder().channels(8).samplesPerRecord(256).records(60).build()
+                .writeTo(tempDir.resolve("large.edf"));
+
+        // Act
+        ColumnarTranscoder.Result result = ColumnarTranscoder.transcode(source, tempDir.resolve("large.edfc"), 10, 6);
+
+        // Assert
+        assertTrue(result.compressionRatio() > 1.0, "Expected a compression ratio above 1 but was " + result.compressionRatio());
+    }
+
+    @Test
+    void testReadDigital_BeyondEnd_ThrowsIOException() throws IOException {
+        // Arrange
+        Path source = SyntheticEdfFile.builder().channels(1).samplesPerRecord(10).records(3).build()
+                .writeTo(tempDir.resolve("short.edf"));
+        Path target = tempDir.resolve("short.edfc");
+        ColumnarTranscoder.transcode(source, target, 2, 6);
+
+        // Act & Assert
+        try (ColumnarSignalSource columnar = ColumnarSignalSource.open(target)) {
+            assertThrows(IOException.class, () -> columnar.readDigital(0, 25, new short[10]));
+        }
+    }
+
+    @Test
+    void testOpen_NotColumnarFile_ThrowsIOException() throws IOException {
+        // Arrange
+        Path source = SyntheticEdfFile.builder().channels(1).records(2).build().writeTo(tempDir.resolve("plain.edf"));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> ColumnarSignalSource.open(source));
+    }
+
+    @Test
+    void testCompleteRecords_TruncatedFile_CountsPresentRecords() throws IOException {
+        // Arrange
+        SyntheticEdfFile edf = SyntheticEdfFile.builder().channels(2).records(5).build();
+        EdfSignalHeader header = EdfSignalHeader.parse(Arrays.copyOf(edf.toBytes(), edf.headerSize()));
+
+        // Act & Assert
+        assertEquals(5, EdfSignalSource.completeRecords(header, edf.size()));
+        assertEquals(3, EdfSignalSource.completeRecords(header, edf.headerSize() + 3L * edf.recordSize() + 7));
+        assertEquals(0, EdfSignalSource.completeRecords(header, edf.headerSize() - 1));
+    }
+
+    private static short[] read(SignalSource source, int signal, long from, int count) throws IOException {
+        short[] out = new short[count];
+        source.readDigital(signal, from, out);
+        return out;
+    }
+
+    private static short[] expectedSamples(byte[] content, int signal) throws IOException {
+        int headerSize = Integer.parseInt(new String(content, 184, 8, StandardCharsets.US_ASCII).trim());
+        EdfSignalHeader header = EdfSignalHeader.parse(Arrays.copyOf(content, headerSize));
+        int samplesPerRecord = header.signals().get(signal).samplesPerRecord();
+        short[] samples = new short[header.records() * samplesPerRecord];
+        for (int r = 0; r < header.records(); r++) {
+            int base = header.size() + r * header.recordSize() + header.offsetInRecord(signal);
+            for (int i = 0; i < samplesPerRecord; i++) {
+                samples[r * samplesPerRecord + i] =
+                        (short) EdfSampleDecoder.digitalValue(content, base + i * EdfSampleDecoder.BYTES_PER_SAMPLE);
+            }
+        }
+        return samples;
+    }
+}
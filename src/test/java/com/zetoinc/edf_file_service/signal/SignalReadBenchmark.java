@@ -0,0 +1,100 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading one channel of a one hour recording from the EDF file and from its columnar copy,
+ * for the whole recording and for a 30 second range. The compression ratio of the columnar copy is
+ * printed during setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignalReadBenchmark {
+
+    private static final int SAMPLE_RATE = 256;
+    private static final int RECORDS = 3600;
+
+    @Param({"16", "64"})
+    int channels;
+
+    private Path directory;
+    private EdfSignalSource edf;
+    private ColumnarSignalSource columnar;
+    private short[] fullChannel;
+    private short[] range;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("signal-read-benchmark");
+        Path edfFile = SyntheticEdfFile.builder().channels(channels).samplesPerRecord(SAMPLE_RATE).records(RECORDS).build()
+                .writeTo(directory.resolve("recording.edf"));
+        Path columnarFile = directory.resolve("recording.edfc");
+        ColumnarTranscoder.Result result = ColumnarTranscoder.transcode(edfFile, columnarFile, 10, 6);
+        System.out.printf("%n%d channels: %d -> %d bytes, compression ratio %.2f%n",
+                channels, result.sourceBytes(), result.transcodedBytes(), result.compressionRatio());
+
+        edf = EdfSignalSource.open(edfFile);
+        columnar = ColumnarSignalSource.open(columnarFile);
+        fullChannel = new short[RECORDS * SAMPLE_RATE];
+        range = new short[30 * SAMPLE_RATE];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        edf.close();
+        columnar.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public short[] edfFullChannel() throws IOException {
+        edf.readDigital(channels / 2, 0, fullChannel);
+        return fullChannel;
+    }
+
+    @Benchmark
+    public short[] columnarFullChannel() throws IOException {
+        columnar.readDigital(channels / 2, 0, fullChannel);
+        return fullChannel;
+    }
+
+    @Benchmark
+    public short[] edfRange() throws IOException {
+        edf.readDigital(channels / 2, 1805L * SAMPLE_RATE, range);
+        return range;
+    }
+
+    @Benchmark
+    public short[] columnarRange() throws IOException {
+        // The range spans four chunks, so the cached last chunk never serves the start of the next read
+        columnar.readDigital(channels / 2, 1805L * SAMPLE_RATE, range);
+        return range;
+    }
+}
@@ -0,0 +1,163 @@
+package com.zetoinc.edf_file_service.signal;
+
+import com.zetoinc.edf_file_service.exception.SignalNotAvailableException;
+import com.zetoinc.edf_file_service.metrics.EdfMetrics;
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.service.EdfFileService;
+import com.zetoinc.edf_file_service.support.SyntheticEdfFile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SignalServiceImpl} reading EDF files and their columnar copies.
+ */
+@ExtendWith(MockitoExtension.class)
+class SignalServiceImplTest {
+
+    @Mock
+    private EdfFileService edfFileService;
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final EdfMetrics metrics = new EdfMetrics(meterRegistry);
+
+    private ColumnarTranscodingService transcodingService;
+    private SignalServiceImpl signalService;
+    private Path edfFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        transcodingService = new ColumnarTranscodingService(metrics);
+        ReflectionTestUtils.setField(transcodingService, "directory", tempDir.resolve("columnar").toString());
+        ReflectionTestUtils.setField(transcodingService, "chunkSeconds", 2.0);
+        ReflectionTestUtils.setField(transcodingService, "compressionLevel", 6);
+        signalService = new SignalServiceImpl(edfFileService, transcodingService, metrics);
+        ReflectionTestUtils.setField(signalService, "maxSamples", 1_000);
+        ReflectionTestUtils.setField(signalService, "storageDirectory", tempDir.toString());
+
+        edfFile = SyntheticEdfFile.builder().channels(3).sampleRates(256, 128).records(10).build()
+                .writeTo(tempDir.resolve("recording.edf"));
+    }
+
+    @Test
+    void testReadSignal_BeforeAndAfterTranscoding_ReturnsSameSamples() throws IOException {
+        // Given
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata(edfFile.toUri().toString())));
+
+        // When
+        SignalData fromEdf = signalService.readSignal(1L, 1, 1.5, 7.25).orElseThrow();
+        ColumnarTranscoder.Result result = transcodingService.transcode(1L, edfFile);
+        SignalData fromColumnar = signalService.readSignal(1L, 1, 1.5, 7.25).orElseThrow();
+
+        // Then
+        assertEquals("EEG 2", fromEdf.label());
+        assertEquals(128.0, fromEdf.sampleRate());
+        assertEquals(1.5, fromEdf.startSeconds());
+        assertEquals(736, fromEdf.samples().length);
+        assertArrayEquals(fromEdf.samples(), fromColumnar.samples());
+        assertTrue(transcodingService.columnarFile(1L).isPresent());
+        assertEquals(result.transcodedBytes(), meterRegistry.get("edf.columnar.bytes").tag("kind", "transcoded").counter().count());
+        assertEquals(736, meterRegistry.get("edf.signal.samples").tag("layout", "edf").counter().count());
+        assertEquals(736, meterRegistry.get("edf.signal.samples").tag("layout", "columnar").counter().count());
+    }
+
+    @Test
+    void testReadSignal_WithoutEnd_ReadsToEndOfRecording() {
+        // Given
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata(edfFile.toUri().toString())));
+
+        // When
+        SignalData signal = signalService.readSignal(1L, 0, 8.5, null).orElseThrow();
+
+        // Then
+        assertEquals(384, signal.samples().length);
+    }
+
+    @Test
+    void testReadSignal_UnreadableColumnarCopy_FallsBackToEdfFile() throws IOException {
+        // Given
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata(edfFile.toUri().toString())));
+        SignalData expected = signalService.readSignal(1L, 2, 0, 1.0).orElseThrow();
+        Path columnar = tempDir.resolve("columnar/1.edfc");
+        Files.createDirectories(columnar.getParent());
+        Files.write(columnar, new byte[64]);
+
+        // When
+        SignalData signal = signalService.readSignal(1L, 2, 0, 1.0).orElseThrow();
+
+        // Then
+        assertArrayEquals(expected.samples(), signal.samples());
+    }
+
+    @Test
+    void testReadSignal_UnknownMetadata_ReturnsEmpty() {
+        when(edfFileService.findMetadata(42L)).thenReturn(Optional.empty());
+
+        assertTrue(signalService.readSignal(42L, 0, 0, null).isEmpty());
+    }
+
+    @Test
+    void testReadSignal_RemoteFile_ThrowsSignalNotAvailableException() {
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata("https://example.com/sample.edf")));
+
+        assertThrows(SignalNotAvailableException.class, () -> signalService.readSignal(1L, 0, 0, null));
+    }
+
+    @Test
+    void testReadSignal_FileOutsideStoredDirectories_ThrowsSignalNotAvailableException(@TempDir Path otherDir) throws IOException {
+        // Given a local file that was neither uploaded nor picked up from a watched directory
+        Path outside = Files.copy(edfFile, otherDir.resolve("recording.edf"));
+        Path watched = Files.createDirectory(tempDir.resolve("watched"));
+        Path inWatched = Files.copy(edfFile, watched.resolve("recording.edf"));
+        ReflectionTestUtils.setField(signalService, "storageDirectory", tempDir.resolve("storage").toString());
+        ReflectionTestUtils.setField(signalService, "watchDirectories", new String[]{watched.toString()});
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata(outside.toUri().toString())));
+        when(edfFileService.findMetadata(2L)).thenReturn(Optional.of(metadata(watched.resolve("../../" + otherDir.getFileName() + "/recording.edf").toUri().toString())));
+        when(edfFileService.findMetadata(3L)).thenReturn(Optional.of(metadata(inWatched.toUri().toString())));
+
+        // When & Then
+        assertThrows(SignalNotAvailableException.class, () -> signalService.readSignal(1L, 0, 0, 1.0));
+        assertThrows(SignalNotAvailableException.class, () -> signalService.readSignal(2L, 0, 0, 1.0));
+        assertTrue(signalService.readSignal(3L, 0, 0, 1.0).isPresent());
+    }
+
+    @Test
+    void testReadSignal_InvalidRequests_ThrowIllegalArgumentException() {
+        // Given
+        when(edfFileService.findMetadata(1L)).thenReturn(Optional.of(metadata(edfFile.toUri().toString())));
+
+        // When & Then
+        assertEquals("Channel must be between 0 and 2.",
+                assertThrows(IllegalArgumentException.class, () -> signalService.readSignal(1L, 3, 0, null)).getMessage());
+        assertEquals("Invalid time range.",
+                assertThrows(IllegalArgumentException.class, () -> signalService.readSignal(1L, 0, 4.0, 2.0)).getMessage());
+        assertEquals("Invalid time range.",
+                assertThrows(IllegalArgumentException.class, () -> signalService.readSignal(1L, 0, 10.0, null)).getMessage());
+        assertEquals("Requested range exceeds 1000 samples.",
+                assertThrows(IllegalArgumentException.class, () -> signalService.readSignal(1L, 0, 0, null)).getMessage());
+    }
+
+    private static EdfMetadata metadata(String sourceUri) {
+        EdfMetadata metadata = new EdfMetadata(1L, "Recording", "SYNTH-0001", 3, 10.0, 0, "01.01.25",
+                List.of("EEG 1", "EEG 2", "EEG 3"));
+        metadata.setSourceUri(sourceUri);
+        return metadata;
+    }
+}
@@ -0,0 +1,65 @@
+package com.zetoinc.edf_file_service.support;
+
+import com.zetoinc.edf_file_service.EdfFileServiceApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.stream.Stream;
+
+/**
+ * Starts the application against an in-memory H2 database, for benchmarks and load tests
+ * that need the real Spring wiring but no MySQL server.
+ * <p>
+ * H2 is used with {@link SkipLockedH2Dialect}, so ingestion jobs are claimed with
+ * {@code FOR UPDATE SKIP LOCKED} as on MySQL 8.
+ * </p>
+ */
+public final class EmbeddedApplication {
+
+    /**
+     * The pre-shared key the embedded application accepts.
+     */
+    public static final String SECRET_KEY = "embedded-secret";
+
+    private EmbeddedApplication() {
+    }
+
+    /**
+     * Starts the application.
+     *
+     * @param webApplicationType {@link WebApplicationType#SERVLET} to serve HTTP on a random port,
+     *                           {@link WebApplicationType#NONE} for the beans only.
+     * @param extraProperties    Additional {@code key=value} properties.
+     * @return The running application context.
+     */
+    public static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... extraProperties) {
+        // Passed as command line arguments so they take precedence over application.properties
+        Stream<String> properties = Stream.concat(Stream.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:edf-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=" + SkipLockedH2Dialect.class.getName(),
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.com.zetoinc=WARN",
+                "logging.file.name=",
+                "app.secret.key=" + SECRET_KEY), Stream.of(extraProperties));
+
+        return new SpringApplicationBuilder(EdfFileServiceApplication.class)
+                .web(webApplicationType)
+                .run(properties.map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Returns the port the embedded web server listens on.
+     *
+     * @param context The running application context.
+     * @return The local server port.
+     */
+    public static int port(ConfigurableApplicationContext context) {
+        return Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+    }
+}
@@ -0,0 +1,221 @@
+package com.zetoinc.edf_file_service.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-JVM HTTP server that serves registered files, standing in for the storage nodes
+ * EDF files are normally fetched from.
+ * <p>
+ * Supports single {@code Range} requests and an injected latency, applied before the response headers
+ * are sent, to imitate slow storage. Individual requests can be made to fail or stall, to imitate a
+ * flaky storage node. Requests and bytes served are counted.
+ * </p>
+ */
+public final class LocalOriginServer implements AutoCloseable {
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^bytes=(\\d*)-(\\d*)$");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private volatile long latencyMillis;
+    private volatile long jitterMillis;
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile int failureStatus;
+    private final AtomicInteger stallsLeft = new AtomicInteger();
+    private volatile long stallMillis;
+
+    private LocalOriginServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server on an ephemeral loopback port.
+     *
+     * @return The running server.
+     * @throws IOException If the server cannot be bound.
+     */
+    public static LocalOriginServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "local-origin");
+            thread.setDaemon(true);
+            return thread;
+        });
+        LocalOriginServer origin = new LocalOriginServer(server, executor);
+        server.createContext("/", origin::handle);
+        server.setExecutor(executor);
+        server.start();
+        return origin;
+    }
+
+    /**
+     * Registers a file and returns the URL it is served at.
+     *
+     * @param name    The file name, e.g. {@code recording.edf}.
+     * @param content The file content.
+     * @return The URL of the file.
+     */
+    public String serve(String name, byte[] content) {
+        files.put("/" + name, content);
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/" + name;
+    }
+
+    /**
+     * Delays every response by the given latency plus a uniformly distributed jitter.
+     *
+     * @param latency The fixed delay.
+     * @param jitter  The maximum additional random delay.
+     * @return This server.
+     */
+    public LocalOriginServer latency(Duration latency, Duration jitter) {
+        this.latencyMillis = latency.toMillis();
+        this.jitterMillis = jitter.toMillis();
+        return this;
+    }
+
+    /**
+     * Answers the next requests with the given status instead of the file.
+     *
+     * @param requests The number of requests to fail.
+     * @param status   The HTTP status to answer with, e.g. {@code 503}.
+     * @return This server.
+     */
+    public LocalOriginServer failNext(int requests, int status) {
+        this.failureStatus = status;
+        this.failuresLeft.set(requests);
+        return this;
+    }
+
+    /**
+     * Delays the next requests by the given time on top of the configured latency.
+     *
+     * @param requests The number of requests to stall.
+     * @param delay    The additional delay.
+     * @return This server.
+     */
+    public LocalOriginServer stallNext(int requests, Duration delay) {
+        this.stallMillis = delay.toMillis();
+        this.stallsLeft.set(requests);
+        return this;
+    }
+
+    /**
+     * Returns the number of requests received.
+     *
+     * @return The request count.
+     */
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * Returns the number of body bytes sent.
+     *
+     * @return The bytes served.
+     */
+    public long bytesServed() {
+        return bytesServed.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            delay();
+            if (failuresLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+                exchange.sendResponseHeaders(failureStatus, -1);
+                return;
+            }
+
+            byte[] content = files.get(exchange.getRequestURI().getPath());
+            if (content == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+
+            int start = 0;
+            int end = content.length - 1;
+            int status = 200;
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null) {
+                Matcher matcher = RANGE_PATTERN.matcher(range.trim());
+                if (!matcher.matches() || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())) {
+                    exchange.getResponseHeaders().set("Content-Range", "bytes */" + content.length);
+                    exchange.sendResponseHeaders(416, -1);
+                    return;
+                }
+                if (matcher.group(1).isEmpty()) {
+                    // Suffix range: the last n bytes
+                    start = (int) Math.max(0, content.length - Long.parseLong(matcher.group(2)));
+                } else {
+                    start = (int) Math.min(Long.parseLong(matcher.group(1)), Integer.MAX_VALUE);
+                    if (!matcher.group(2).isEmpty()) {
+                        end = (int) Math.min(Long.parseLong(matcher.group(2)), end);
+                    }
+                }
+                if (start > end) {
+                    exchange.getResponseHeaders().set("Content-Range", "bytes */" + content.length);
+                    exchange.sendResponseHeaders(416, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + content.length);
+                status = 206;
+            }
+
+            int length = end - start + 1;
+            if ("HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Content-Length", String.valueOf(length));
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(status, length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(content, start, length);
+                bytesServed.addAndGet(length);
+            } catch (IOException e) {
+                // The client stopped reading, e.g. after it got the header it needed
+            }
+        }
+    }
+
+    private void delay() {
+        long millis = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (stallsLeft.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            millis += stallMillis;
+        }
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
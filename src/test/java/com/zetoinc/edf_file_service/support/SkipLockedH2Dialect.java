@@ -0,0 +1,25 @@
+package com.zetoinc.edf_file_service.support;
+
+import org.hibernate.dialect.H2Dialect;
+
+/**
+ * H2 dialect that renders {@code FOR UPDATE SKIP LOCKED}, which H2 2.x supports but Hibernate's
+ * {@link H2Dialect} does not use, so that row claiming on the embedded database behaves like on MySQL 8.
+ */
+public class SkipLockedH2Dialect extends H2Dialect {
+
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString(String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
@@ -0,0 +1,368 @@
+package com.zetoinc.edf_file_service.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates valid EDF and EDF+ files with synthetic signals for tests, benchmarks and load tests.
+ * <p>
+ * Each channel carries a sine wave with a channel-specific frequency plus a little seeded noise,
+ * so generated files are deterministic for a given configuration. Channels may use different sample
+ * rates. When annotations are added the file is written as EDF+ with an {@code EDF Annotations} signal
+ * holding a time-keeping annotation per data record.
+ * </p>
+ */
+public final class SyntheticEdfFile {
+
+    /**
+     * Label of the EDF+ annotation signal.
+     */
+    public static final String ANNOTATIONS_LABEL = "EDF Annotations";
+
+    private static final int FIXED_HEADER_SIZE = 256;
+    private static final int SIGNAL_HEADER_SIZE = 256;
+    private static final int DIGITAL_MIN = -32768;
+    private static final int DIGITAL_MAX = 32767;
+    private static final double PHYSICAL_MIN = -3200.0;
+    private static final double PHYSICAL_MAX = 3200.0;
+    private static final int MIN_ANNOTATION_BYTES = 60;
+
+    private final int channels;
+    private final int[] samplesPerRecord;
+    private final int records;
+    private final double recordDuration;
+    private final String patientId;
+    private final long seed;
+    private final List<List<byte[]>> annotationsPerRecord;
+    private final int annotationSamples;
+
+    private SyntheticEdfFile(Builder builder) {
+        this.channels = builder.channels;
+        this.recordDuration = builder.recordDuration;
+        this.records = builder.duration != null
+                ? (int) Math.ceil(builder.duration / builder.recordDuration)
+                : builder.records;
+        this.patientId = builder.patientId;
+        this.seed = builder.seed;
+
+        this.samplesPerRecord = new int[channels];
+        for (int c = 0; c < channels; c++) {
+            samplesPerRecord[c] = builder.sampleRates != null
+                    ? (int) Math.round(builder.sampleRates[c % builder.sampleRates.length] * recordDuration)
+                    : builder.samplesPerRecord;
+        }
+
+        this.annotationsPerRecord = new ArrayList<>();
+        if (!builder.annotations.isEmpty()) {
+            for (int r = 0; r < records; r++) {
+                annotationsPerRecord.add(new ArrayList<>());
+            }
+            for (Annotation annotation : builder.annotations) {
+                int record = Math.min(records - 1, Math.max(0, (int) (annotation.onset / recordDuration)));
+                annotationsPerRecord.get(record).add(annotation.toTal());
+            }
+        }
+        int annotationBytes = MIN_ANNOTATION_BYTES;
+        for (int r = 0; r < annotationsPerRecord.size(); r++) {
+            int bytes = timeKeepingTal(r).length;
+            for (byte[] tal : annotationsPerRecord.get(r)) {
+                bytes += tal.length;
+            }
+            annotationBytes = Math.max(annotationBytes, bytes);
+        }
+        this.annotationSamples = isEdfPlus() ? (annotationBytes + 1) / 2 : 0;
+    }
+
+    /**
+     * Returns a builder with defaults of 8 channels sampled at 256 Hz for 10 seconds.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns whether the file is written as EDF+, i.e. whether it has annotations.
+     *
+     * @return {@code true} for EDF+, {@code false} for plain EDF.
+     */
+    public boolean isEdfPlus() {
+        return !annotationsPerRecord.isEmpty();
+    }
+
+    /**
+     * Returns the number of signals in the header, including the annotation signal of EDF+ files.
+     *
+     * @return The number of signals.
+     */
+    public int signals() {
+        return channels + (isEdfPlus() ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of data records.
+     *
+     * @return The number of data records.
+     */
+    public int records() {
+        return records;
+    }
+
+    /**
+     * Returns the size of the header, i.e. the byte offset of the first data record.
+     *
+     * @return The header size in bytes.
+     */
+    public int headerSize() {
+        return FIXED_HEADER_SIZE + signals() * SIGNAL_HEADER_SIZE;
+    }
+
+    /**
+     * Returns the size of a single data record.
+     *
+     * @return The record size in bytes.
+     */
+    public int recordSize() {
+        return (Arrays.stream(samplesPerRecord).sum() + annotationSamples) * 2;
+    }
+
+    /**
+     * Returns the total size of the generated file.
+     *
+     * @return The file size in bytes.
+     */
+    public long size() {
+        return headerSize() + (long) records * recordSize();
+    }
+
+    /**
+     * Writes the file to the given path.
+     *
+     * @param path The target path.
+     * @return The target path.
+     * @throws IOException If the file cannot be written.
+     */
+    public Path writeTo(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            writeTo(out);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the complete file content.
+     *
+     * @return The file content.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) size());
+        try {
+            writeTo(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the file content to the given stream.
+     *
+     * @param out The target stream.
+     * @throws IOException If the stream cannot be written.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(header());
+
+        Random random = new Random(seed);
+        byte[] record = new byte[recordSize()];
+        for (int r = 0; r < records; r++) {
+            int position = 0;
+            for (int c = 0; c < channels; c++) {
+                double frequency = 1.0 + c % 40;
+                for (int s = 0; s < samplesPerRecord[c]; s++) {
+                    double t = r * recordDuration + s * recordDuration / samplesPerRecord[c];
+                    double value = 8000 * Math.sin(2 * Math.PI * frequency * t) + random.nextGaussian() * 200;
+                    short digital = (short) Math.max(DIGITAL_MIN, Math.min(DIGITAL_MAX, Math.round(value)));
+                    record[position++] = (byte) digital;
+                    record[position++] = (byte) (digital >> 8);
+                }
+            }
+            if (isEdfPlus()) {
+                Arrays.fill(record, position, record.length, (byte) 0);
+                for (byte[] tal : talsOfRecord(r)) {
+                    System.arraycopy(tal, 0, record, position, tal.length);
+                    position += tal.length;
+                }
+            }
+            out.write(record);
+        }
+    }
+
+    private List<byte[]> talsOfRecord(int record) {
+        List<byte[]> tals = new ArrayList<>();
+        tals.add(timeKeepingTal(record));
+        tals.addAll(annotationsPerRecord.get(record));
+        return tals;
+    }
+
+    private byte[] timeKeepingTal(int record) {
+        return ("+" + number(record * recordDuration) + "\u0014\u0014\u0000").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] header() {
+        byte[] header = new byte[headerSize()];
+        Arrays.fill(header, (byte) ' ');
+        int signals = signals();
+
+        put(header, 0, 8, "0");
+        put(header, 8, 80, patientId + " M 01-JAN-1970 Synthetic");
+        put(header, 88, 80, "Startdate 01-JAN-2025 X X synthetic");
+        put(header, 168, 8, "01.01.25");
+        put(header, 176, 8, "00.00.00");
+        put(header, 184, 8, String.valueOf(headerSize()));
+        put(header, 192, 44, isEdfPlus() ? "EDF+C" : "");
+        put(header, 236, 8, String.valueOf(records));
+        put(header, 244, 8, number(recordDuration));
+        put(header, 252, 4, String.valueOf(signals));
+
+        int base = FIXED_HEADER_SIZE;
+        for (int c = 0; c < signals; c++) {
+            boolean annotations = c == channels;
+            put(header, base + c * 16, 16, annotations ? ANNOTATIONS_LABEL : "EEG " + (c + 1));
+            put(header, base + signals * 16 + c * 80, 80, annotations ? "" : "AgAgCl electrode");
+            put(header, base + signals * 96 + c * 8, 8, annotations ? "" : "uV");
+            put(header, base + signals * 104 + c * 8, 8, annotations ? "-1" : number(PHYSICAL_MIN));
+            put(header, base + signals * 112 + c * 8, 8, annotations ? "1" : number(PHYSICAL_MAX));
+            put(header, base + signals * 120 + c * 8, 8, String.valueOf(DIGITAL_MIN));
+            put(header, base + signals * 128 + c * 8, 8, String.valueOf(DIGITAL_MAX));
+            put(header, base + signals * 136 + c * 80, 80, annotations ? "" : "HP:0.1Hz LP:75Hz");
+            put(header, base + signals * 216 + c * 8, 8,
+                    String.valueOf(annotations ? annotationSamples : samplesPerRecord[c]));
+        }
+        return header;
+    }
+
+    private static String number(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private static void put(byte[] header, int offset, int length, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    /**
+     * An EDF+ annotation.
+     *
+     * @param onset    The onset in seconds from the start of the recording.
+     * @param duration The duration in seconds, or {@code 0} for none.
+     * @param text     The annotation text.
+     */
+    public record Annotation(double onset, double duration, String text) {
+
+        private byte[] toTal() {
+            String durationPart = duration > 0 ? "\u0015" + number(duration) : "";
+            return ("+" + number(onset) + durationPart + "\u0014" + text + "\u0014\u0000").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Builder for {@link SyntheticEdfFile}.
+     */
+    public static final class Builder {
+        private int channels = 8;
+        private int samplesPerRecord = 256;
+        private double[] sampleRates;
+        private int records = 10;
+        private Double duration;
+        private double recordDuration = 1.0;
+        private String patientId = "SYNTH-0001";
+        private long seed = 42;
+        private final List<Annotation> annotations = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the number of signal channels, not counting the EDF+ annotation signal.
+         */
+        public Builder channels(int channels) {
+            this.channels = channels;
+            return this;
+        }
+
+        /**
+         * Sets the same number of samples per data record for every channel.
+         */
+        public Builder samplesPerRecord(int samplesPerRecord) {
+            this.samplesPerRecord = samplesPerRecord;
+            this.sampleRates = null;
+            return this;
+        }
+
+        /**
+         * Sets the sample rates in Hz; channel {@code c} uses {@code rates[c % rates.length]}.
+         */
+        public Builder sampleRates(double... rates) {
+            this.sampleRates = rates.clone();
+            return this;
+        }
+
+        /**
+         * Sets the number of data records.
+         */
+        public Builder records(int records) {
+            this.records = records;
+            this.duration = null;
+            return this;
+        }
+
+        /**
+         * Sets the recording length in seconds, rounded up to whole data records.
+         */
+        public Builder duration(double seconds) {
+            this.duration = seconds;
+            return this;
+        }
+
+        /**
+         * Sets the duration of a data record in seconds.
+         */
+        public Builder recordDuration(double recordDuration) {
+            this.recordDuration = recordDuration;
+            return this;
+        }
+
+        public Builder patientId(String patientId) {
+            this.patientId = patientId;
+            return this;
+        }
+
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Adds an annotation, which makes the file EDF+.
+         */
+        public Builder annotation(double onset, double duration, String text) {
+            this.annotations.add(new Annotation(onset, duration, text));
+            return this;
+        }
+
+        public SyntheticEdfFile build() {
+            return new SyntheticEdfFile(this);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.zetoinc.edf_file_service.support;
+
+import com.zetoinc.edf_file_service.model.EdfMetadata;
+import com.zetoinc.edf_file_service.service.EdfHeaderParser;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SyntheticEdfFile}.
+ */
+class SyntheticEdfFileTest {
+
+    @Test
+    void testPlainEdf_HasDeclaredLayout() {
+        // Given a file with mixed sample rates
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(3).sampleRates(256, 128).duration(4.5).build();
+
+        // When generating it
+        byte[] content = file.toBytes();
+
+        // Then the header and the data records add up
+        assertEquals(5, file.records());
+        assertEquals((256 + 128 + 256) * 2, file.recordSize());
+        assertEquals(file.size(), content.length);
+        assertEquals(String.valueOf(file.headerSize()), field(content, 184, 8));
+        assertEquals("", field(content, 192, 44));
+        EdfMetadata metadata = EdfHeaderParser.parse(content);
+        assertEquals(3, metadata.getNumberOfChannels());
+        assertEquals("EEG 1", metadata.getChannelNames().get(0));
+    }
+
+    @Test
+    void testEdfPlus_WritesAnnotationSignal() {
+        // Given a file with an annotation in its second data record
+        SyntheticEdfFile file = SyntheticEdfFile.builder().channels(2).records(3).annotation(1.5, 0.5, "Eyes closed").build();
+
+        // When generating it
+        byte[] content = file.toBytes();
+
+        // Then it is EDF+ with an annotation signal that carries the annotation
+        assertTrue(file.isEdfPlus());
+        assertEquals("EDF+C", field(content, 192, 44));
+        EdfMetadata metadata = EdfHeaderParser.parse(content);
+        assertEquals(3, metadata.getNumberOfChannels());
+        assertEquals(SyntheticEdfFile.ANNOTATIONS_LABEL, metadata.getChannelNames().get(2));
+        String data = new String(content, file.headerSize(), content.length - file.headerSize(), StandardCharsets.UTF_8);
+        assertTrue(data.contains("+1.5\u00150.5\u0014Eyes closed\u0014"));
+        assertTrue(data.contains("+2\u0014\u0014"));
+    }
+
+    private static String field(byte[] content, int offset, int length) {
+        return new String(content, offset, length, StandardCharsets.US_ASCII).trim();
+    }
+}